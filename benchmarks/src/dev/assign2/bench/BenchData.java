@@ -0,0 +1,92 @@
+/**
+ * Generates reproducible CSV inputs for the benchmarks.
+ * The same seed and row count always produce byte-identical files, so results can be compared across commits.
+ */
+package dev.assign2.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class BenchData {
+
+    static final long SEED = 42L;
+
+    private static final String[] POSITIONS = {
+            "Quarterback", "Linebacker", "Cornerback", "DefensiveTackle", "WideReceiver", "RunningBack", "Safety", "Kicker"
+    };
+    private static final String[] CITIES = {
+            "Boston", "Dallas", "Green Bay", "San Francisco", "Kansas City", "Seattle", "Pittsburgh", "Baltimore"
+    };
+
+    private BenchData() {
+    }
+
+    /**
+     * Returns the generated name of a team.
+     *
+     * @param index the team index
+     * @return the team name
+     */
+    static String teamName(int index) {
+        return "Team" + index;
+    }
+
+    /**
+     * Writes a teams file in the same layout as resources/teams.csv.
+     *
+     * @param file  the file to write
+     * @param teams the number of teams
+     * @throws IOException if the file cannot be written
+     */
+    static void writeTeams(Path file, int teams) throws IOException {
+        Random random = new Random(SEED);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < teams; i++) {
+                out.write(teamName(i) + "," + CITIES[random.nextInt(CITIES.length)] + ",Coach " + i + "," + random.nextInt(30) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Writes a players file in the same layout as resources/players.csv, spread evenly over the given teams.
+     *
+     * @param file    the file to write
+     * @param players the number of players
+     * @param teams   the number of teams players are assigned to
+     * @throws IOException if the file cannot be written
+     */
+    static void writePlayers(Path file, int players, int teams) throws IOException {
+        Random random = new Random(SEED);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < players; i++) {
+                out.write("P" + i + ",Player " + i + "," + (21 + random.nextInt(20)) + "," + teamName(random.nextInt(teams))
+                        + "," + POSITIONS[random.nextInt(POSITIONS.length)] + "\n");
+            }
+        }
+    }
+
+    /**
+     * Writes a games file in the same layout as resources/games.csv.
+     *
+     * @param file  the file to write
+     * @param games the number of games
+     * @param teams the number of teams playing
+     * @throws IOException if the file cannot be written
+     */
+    static void writeGames(Path file, int games, int teams) throws IOException {
+        Random random = new Random(SEED);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < games; i++) {
+                int month = 1 + random.nextInt(12);
+                int day = 1 + random.nextInt(28);
+                out.write(teamName(random.nextInt(teams)) + "," + teamName(random.nextInt(teams)) + ","
+                        + (2000 + i % 26) + "-" + (month < 10 ? "0" : "") + month + "-" + (day < 10 ? "0" : "") + day + ","
+                        + CITIES[random.nextInt(CITIES.length)] + "," + random.nextInt(50) + "-" + random.nextInt(50) + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/**
+ * Generates a consistent synthetic league of any size: teams, coaches, players and games files in the
+ * layouts of the files in resources/. Every player and game refers to a generated team, and every coach to
+ * the team they coach. Players and games can be skewed towards a few popular teams, and duplicate and
+ * malformed rows can be mixed in at chosen rates to exercise replacement and validation paths.
+ * The same settings and seed always produce byte-identical files.
+ *
+ * <pre>
+ * LeagueGenerator &lt;dir&gt; [--teams n] [--players n] [--games n] [--skew s] [--duplicates rate] [--malformed rate] [--seed n]
+ * </pre>
+ */
+package dev.assign2.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+public final class LeagueGenerator {
+
+    private static final String[] POSITIONS = {
+            "Quarterback", "Linebacker", "Cornerback", "DefensiveTackle", "WideReceiver", "RunningBack", "Safety",
+            "Kicker", "TightEnd", "OffensiveTackle", "Guard", "Center", "DefensiveEnd", "Punter"
+    };
+    private static final String[] CITIES = {
+            "Boston", "Dallas", "Green Bay", "San Francisco", "Kansas City", "Seattle", "Pittsburgh", "Baltimore",
+            "Chicago", "Philadelphia", "Denver", "Miami", "Buffalo", "Detroit", "Houston", "Washington, D.C."
+    };
+    private static final String[] MASCOTS = {
+            "Patriots", "Cowboys", "Packers", "49ers", "Chiefs", "Seahawks", "Steelers", "Ravens", "Bears", "Eagles",
+            "Broncos", "Dolphins", "Bills", "Lions", "Texans", "Commanders", "Giants", "Jets", "Saints", "Falcons"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Tom", "Dak", "Aaron", "Patrick", "Josh", "Lamar", "Jalen", "Justin", "Joe", "Travis", "Derrick", "Micah",
+            "Tyreek", "Davante", "Cooper", "Nick", "Myles", "Aidan", "Christian", "Saquon", "Bill", "Andy", "Pete", "Sean"
+    };
+    private static final String[] LAST_NAMES = {
+            "Brady", "Prescott", "Rodgers", "Mahomes", "Allen", "Jackson", "Hurts", "Herbert", "Burrow", "Kelce",
+            "Henry", "Parsons", "Hill", "Adams", "Kupp", "Bosa", "Garrett", "Hutchinson", "McCaffrey", "Barkley",
+            "Belichick", "Reid", "Carroll", "McVay", "O'Brien", "Smith-Schuster"
+    };
+    private static final LocalDate FIRST_GAME = LocalDate.of(2000, 9, 7);
+    private static final int GAMES_PER_WEEK = 16;
+
+    private final int teams;
+    private final int players;
+    private final int games;
+    private double skew;
+    private double duplicateRate;
+    private double malformedRate;
+    private long seed = BenchData.SEED;
+
+    /**
+     * Constructs a generator for a league of the given size, with players and games spread evenly.
+     *
+     * @param teams   the number of teams, at least 2
+     * @param players the number of players
+     * @param games   the number of games
+     * @throws IllegalArgumentException if there are fewer than 2 teams or a count is negative
+     */
+    public LeagueGenerator(int teams, int players, int games) {
+        if (teams < 2 || players < 0 || games < 0) {
+            throw new IllegalArgumentException("Need at least 2 teams and non-negative counts");
+        }
+        this.teams = teams;
+        this.players = players;
+        this.games = games;
+    }
+
+    /**
+     * Sets how strongly players and games favour low-numbered teams, as the exponent of a Zipf distribution.
+     *
+     * @param skew 0 for an even spread; 1 gives the first team about as many players as the next few together
+     * @return this generator
+     */
+    public LeagueGenerator setSkew(double skew) {
+        if (skew < 0) throw new IllegalArgumentException("Skew must not be negative: " + skew);
+        this.skew = skew;
+        return this;
+    }
+
+    /**
+     * Sets the share of rows that repeat an earlier team name, player ID or game.
+     *
+     * @param rate the share of rows, from 0 to 1
+     * @return this generator
+     */
+    public LeagueGenerator setDuplicateRate(double rate) {
+        this.duplicateRate = rate(rate);
+        return this;
+    }
+
+    /**
+     * Sets the share of rows that are malformed: a missing column, a non-numeric number, a bad date or score,
+     * or an unknown team.
+     *
+     * @param rate the share of rows, from 0 to 1
+     * @return this generator
+     */
+    public LeagueGenerator setMalformedRate(double rate) {
+        this.malformedRate = rate(rate);
+        return this;
+    }
+
+    /**
+     * Sets the random seed.
+     *
+     * @param seed the seed
+     * @return this generator
+     */
+    public LeagueGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Returns the generated name of a team. Names are unique for distinct indexes.
+     *
+     * @param index the team index
+     * @return the team name
+     */
+    public static String teamName(int index) {
+        String mascot = MASCOTS[index % MASCOTS.length];
+        return index < MASCOTS.length ? mascot : mascot + " " + (index / MASCOTS.length + 1);
+    }
+
+    /**
+     * Returns the generated ID of a player.
+     *
+     * @param index the player index
+     * @return the player ID
+     */
+    public static String playerId(int index) {
+        return "P" + index;
+    }
+
+    /**
+     * Writes teams.csv, coaches.csv, players.csv and games.csv into a directory, creating it if needed.
+     *
+     * @param dir the destination directory
+     * @throws IOException if a file cannot be written
+     */
+    public void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Random random = new Random(seed);
+        String[] cities = new String[teams];
+        String[] coaches = new String[teams];
+        int[] experience = new int[teams];
+        for (int i = 0; i < teams; i++) {
+            cities[i] = CITIES[random.nextInt(CITIES.length)];
+            coaches[i] = personName(random);
+            experience[i] = random.nextInt(30);
+        }
+        writeTeams(dir.resolve("teams.csv"), random, cities, coaches, experience);
+        writeCoaches(dir.resolve("coaches.csv"), coaches, experience);
+        double[] popularity = popularity();
+        writePlayers(dir.resolve("players.csv"), random, popularity);
+        writeGames(dir.resolve("games.csv"), random, popularity, cities);
+    }
+
+    private void writeTeams(Path file, Random random, String[] cities, String[] coaches, int[] experience)
+            throws IOException {
+        try (Writer out = writer(file)) {
+            for (int i = 0; i < teams; i++) {
+                String name = i > 0 && chance(random, duplicateRate) ? teamName(random.nextInt(i)) : teamName(i);
+                String years = Integer.toString(experience[i]);
+                if (chance(random, malformedRate)) {
+                    switch (random.nextInt(2)) {
+                        case 0 -> row(out, name, cities[i]);
+                        default -> row(out, name, cities[i], coaches[i], "ten");
+                    }
+                } else {
+                    row(out, name, cities[i], coaches[i], years);
+                }
+            }
+        }
+    }
+
+    private void writeCoaches(Path file, String[] coaches, int[] experience) throws IOException {
+        try (Writer out = writer(file)) {
+            for (int i = 0; i < teams; i++) {
+                row(out, String.format("C%03d", i + 1), coaches[i], teamName(i), Integer.toString(experience[i]));
+            }
+        }
+    }
+
+    private void writePlayers(Path file, Random random, double[] popularity) throws IOException {
+        try (Writer out = writer(file)) {
+            for (int i = 0; i < players; i++) {
+                String id = i > 0 && chance(random, duplicateRate) ? playerId(random.nextInt(i)) : playerId(i);
+                String name = personName(random);
+                // Ages cluster in the mid twenties with a tail of veterans
+                String age = Integer.toString(21 + (int) Math.min(22, Math.abs(random.nextGaussian() * 5)));
+                String team = teamName(pick(random, popularity));
+                String position = POSITIONS[random.nextInt(POSITIONS.length)];
+                if (chance(random, malformedRate)) {
+                    switch (random.nextInt(3)) {
+                        case 0 -> row(out, id, name, age, team);
+                        case 1 -> row(out, id, name, "n/a", team, position);
+                        default -> row(out, id, name, age, "Unknown " + i, position);
+                    }
+                } else {
+                    row(out, id, name, age, team, position);
+                }
+            }
+        }
+    }
+
+    private void writeGames(Path file, Random random, double[] popularity, String[] cities) throws IOException {
+        // The last tenth of the schedule has not been played yet
+        int played = games - games / 10;
+        String[] previous = null;
+        try (Writer out = writer(file)) {
+            for (int i = 0; i < games; i++) {
+                if (previous != null && chance(random, duplicateRate)) {
+                    row(out, previous);
+                    continue;
+                }
+                int home = pick(random, popularity);
+                int away = pick(random, popularity);
+                if (away == home) away = (home + 1 + random.nextInt(teams - 1)) % teams;
+                // Weekly rounds in seasons of 18 weeks, each season starting a year after the last
+                int week = i / GAMES_PER_WEEK;
+                LocalDate date = FIRST_GAME.plusYears(week / 18).plusWeeks(week % 18).plusDays(random.nextInt(4));
+                String score = i < played ? random.nextInt(45) + "-" + random.nextInt(45) : "";
+                String[] fields = {teamName(home), teamName(away), date.toString(), cities[home], score};
+                if (chance(random, malformedRate)) {
+                    switch (random.nextInt(3)) {
+                        case 0 -> fields = Arrays.copyOf(fields, 4);
+                        case 1 -> fields[2] = date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear();
+                        default -> fields[4] = "won";
+                    }
+                }
+                row(out, fields);
+                previous = fields;
+            }
+        }
+    }
+
+    /**
+     * Returns the cumulative share of players and games going to each team.
+     */
+    private double[] popularity() {
+        double[] cumulative = new double[teams];
+        double total = 0;
+        for (int i = 0; i < teams; i++) {
+            total += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < teams; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static String personName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static boolean chance(Random random, double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private static double rate(double rate) {
+        if (!(rate >= 0 && rate <= 1)) throw new IllegalArgumentException("Rate must be between 0 and 1: " + rate);
+        return rate;
+    }
+
+    private static Writer writer(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static void row(Writer out, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(',');
+            String field = fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Writes a league into a directory from command-line settings.
+     *
+     * @param args the directory, then any of --teams, --players, --games, --skew, --duplicates, --malformed, --seed
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: LeagueGenerator <dir> [--teams n] [--players n] [--games n] [--skew s]"
+                    + " [--duplicates rate] [--malformed rate] [--seed n]");
+            return;
+        }
+        Options options = new Options(args, 1);
+        LeagueGenerator generator = new LeagueGenerator(options.getInt("--teams", 32),
+                options.getInt("--players", 1_700), options.getInt("--games", 272))
+                .setSkew(options.getDouble("--skew", 0))
+                .setDuplicateRate(options.getDouble("--duplicates", 0))
+                .setMalformedRate(options.getDouble("--malformed", 0))
+                .setSeed(options.getLong("--seed", BenchData.SEED));
+        Path dir = Path.of(args[0]);
+        generator.write(dir);
+        System.out.println("Wrote " + generator.teams + " teams, " + generator.players + " players and "
+                + generator.games + " games to " + dir);
+    }
+}
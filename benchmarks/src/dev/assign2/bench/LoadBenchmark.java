@@ -0,0 +1,106 @@
+/**
+ * Measures CSV loading of teams, players and games at increasing row counts.
+ * Input files are generated once per trial into a temporary directory.
+ */
+package dev.assign2.bench;
+
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.TeamManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class LoadBenchmark {
+
+    private static final int TEAMS = 1_000;
+
+    @Param({"1000", "100000", "10000000"})
+    public int rows;
+
+    private Path dir;
+    private String teamsCsv;
+    private String playersCsv;
+    private String gamesCsv;
+    private String bigTeamsCsv;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        dir = Files.createTempDirectory("nfl-bench");
+        teamsCsv = dir.resolve("teams.csv").toString();
+        bigTeamsCsv = dir.resolve("teams-" + rows + ".csv").toString();
+        playersCsv = dir.resolve("players.csv").toString();
+        gamesCsv = dir.resolve("games.csv").toString();
+        BenchData.writeTeams(Path.of(teamsCsv), TEAMS);
+        BenchData.writeTeams(Path.of(bigTeamsCsv), rows);
+        BenchData.writePlayers(Path.of(playersCsv), rows, TEAMS);
+        BenchData.writeGames(Path.of(gamesCsv), rows, TEAMS);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        for (String file : new String[]{teamsCsv, bigTeamsCsv, playersCsv, gamesCsv}) {
+            Files.deleteIfExists(Path.of(file));
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public TeamManager loadTeams() throws Exception {
+        TeamManager teamManager = new TeamManager();
+        teamManager.loadTeams(bigTeamsCsv);
+        return teamManager;
+    }
+
+    @Benchmark
+    public PlayerManager loadPlayers() throws Exception {
+        // Rosters are cleared by using a fresh TeamManager, so team loading is part of the measurement
+        TeamManager teamManager = new TeamManager();
+        teamManager.loadTeams(teamsCsv);
+        PlayerManager playerManager = new PlayerManager();
+        playerManager.loadPlayers(playersCsv, teamManager);
+        return playerManager;
+    }
+
+    @Benchmark
+    public PlayerManager loadPlayersParallel() throws Exception {
+        TeamManager teamManager = new TeamManager();
+        teamManager.loadTeams(teamsCsv);
+        PlayerManager playerManager = new PlayerManager();
+        playerManager.loadPlayersParallel(playersCsv, teamManager);
+        return playerManager;
+    }
+
+    @Benchmark
+    public Object readPlayers() throws Exception {
+        return new PlayerManager().readPlayers(playersCsv);
+    }
+
+    @Benchmark
+    public GameManager loadGames() throws Exception {
+        GameManager gameManager = new GameManager();
+        gameManager.loadGames(gamesCsv);
+        return gameManager;
+    }
+}
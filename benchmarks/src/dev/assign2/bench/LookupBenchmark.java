@@ -0,0 +1,97 @@
+/**
+ * Measures findTeam hits and misses across league sizes, and roster insertion through Team.addPlayer.
+ */
+package dev.assign2.bench;
+
+import dev.assign2.managers.TeamManager;
+import dev.assign2.models.Coach;
+import dev.assign2.models.Player;
+import dev.assign2.models.Team;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    private static final int ROSTER_SIZE = 1_024;
+
+    @Param({"10", "1000", "100000"})
+    public int teamCount;
+
+    private TeamManager teamManager;
+    private String[] hits;
+    private String[] misses;
+    private Player[] roster;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // addTeam prints a confirmation per team, which is not what is being measured
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            teamManager = new TeamManager();
+            for (int i = 0; i < teamCount; i++) {
+                teamManager.addTeam(BenchData.teamName(i), "City", "Coach " + i, i % 30);
+            }
+        } finally {
+            System.setOut(out);
+        }
+
+        Random random = new Random(BenchData.SEED);
+        hits = new String[1024];
+        misses = new String[1024];
+        for (int i = 0; i < hits.length; i++) {
+            // Mixed case exercises the case-insensitive match
+            hits[i] = BenchData.teamName(random.nextInt(teamCount)).toUpperCase();
+            misses[i] = "Missing" + random.nextInt(teamCount);
+        }
+        roster = new Player[ROSTER_SIZE];
+        for (int i = 0; i < roster.length; i++) {
+            roster[i] = new Player("P" + i, "Player " + i, 25, BenchData.teamName(0), "Quarterback");
+        }
+    }
+
+    @Benchmark
+    public Team findTeamHit() {
+        next = (next + 1) & (hits.length - 1);
+        return teamManager.findTeam(hits[next]);
+    }
+
+    @Benchmark
+    public Team findTeamMiss() {
+        next = (next + 1) & (misses.length - 1);
+        return teamManager.findTeam(misses[next]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROSTER_SIZE)
+    public Team addPlayers() {
+        Team team = new Team(BenchData.teamName(0), "City", new Coach("C01", "Coach", BenchData.teamName(0), 1));
+        for (Player player : roster) {
+            team.addPlayer(player);
+        }
+        return team;
+    }
+}
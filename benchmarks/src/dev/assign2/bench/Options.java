@@ -0,0 +1,40 @@
+/**
+ * Reads "--name value" pairs from the command line of the generator and the scale test.
+ */
+package dev.assign2.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * Reads the pairs starting at an index; anything not starting with "--" there is an error.
+     */
+    Options(String[] args, int first) {
+        for (int i = first; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value at " + args[i]);
+            }
+            values.put(args[i], args[i + 1]);
+        }
+    }
+
+    String get(String name, String fallback) {
+        return values.getOrDefault(name, fallback);
+    }
+
+    int getInt(String name, int fallback) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name).replace("_", "")) : fallback;
+    }
+
+    long getLong(String name, long fallback) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name).replace("_", "")) : fallback;
+    }
+
+    double getDouble(String name, double fallback) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : fallback;
+    }
+}
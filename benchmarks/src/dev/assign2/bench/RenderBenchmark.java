@@ -0,0 +1,93 @@
+/**
+ * Measures the display methods rendering full tables. Output goes to a discarding stream,
+ * so the numbers reflect formatting and PrintStream overhead rather than terminal speed.
+ */
+package dev.assign2.bench;
+
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.TeamManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+
+    private static final int TEAMS = 1_000;
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private TeamManager teamManager;
+    private PlayerManager playerManager;
+    private GameManager gameManager;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("nfl-bench");
+        Path teams = dir.resolve("teams.csv");
+        Path players = dir.resolve("players.csv");
+        Path games = dir.resolve("games.csv");
+        BenchData.writeTeams(teams, TEAMS);
+        BenchData.writePlayers(players, rows, TEAMS);
+        BenchData.writeGames(games, rows, TEAMS);
+
+        teamManager = new TeamManager();
+        teamManager.loadTeams(teams.toString());
+        playerManager = new PlayerManager();
+        playerManager.loadPlayers(players.toString(), teamManager);
+        gameManager = new GameManager();
+        gameManager.loadGames(games.toString());
+
+        Files.delete(teams);
+        Files.delete(players);
+        Files.delete(games);
+        Files.delete(dir);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void displayTeams() {
+        teamManager.displayTeams();
+    }
+
+    @Benchmark
+    public void displayPlayers() {
+        playerManager.displayPlayers();
+    }
+
+    @Benchmark
+    public void displayGames() {
+        gameManager.displayGames();
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * Loads generated leagues of increasing size into the managers and reports how load time, heap and lookup
+ * latency grow, so scaling limits show up before production data reaches them. Each size is generated by
+ * {@link LeagueGenerator} into a temporary directory, loaded through the same {@link StartupLoader} as the
+ * application, and then queried with a fixed mix of seeded lookups whose latencies are reported as percentiles.
+ * Peak heap is the sum of each heap pool's peak during the load, so it is an upper bound.
+ * With {@code --off-heap true} players and games are kept off the heap, and the direct memory they take is reported.
+ *
+ * <pre>
+ * ScaleTest [--sizes 1000,100000,1000000] [--skew s] [--duplicates rate] [--lookups n] [--off-heap true] [--json file]
+ * </pre>
+ */
+package dev.assign2.bench;
+
+import dev.assign2.io.JsonWriter;
+import dev.assign2.io.TableWriter;
+import dev.assign2.main.StartupLoader;
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.TeamManager;
+import dev.assign2.models.Player;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+public final class ScaleTest {
+
+    // About an NFL roster's worth of players per team
+    private static final int PLAYERS_PER_TEAM = 53;
+    private static final int MIN_TEAMS = 32;
+    private static final int SEARCH_LIMIT = 10;
+
+    private final double skew;
+    private final double duplicateRate;
+    private final int lookups;
+    private final boolean offHeap;
+
+    /**
+     * The measurements for one size.
+     */
+    private static final class Result {
+        private final int size;
+        private final int teams;
+        private long loadNanos;
+        private Map<String, Long> stages;
+        private long peakHeap;
+        private long retainedHeap;
+        private long offHeapBytes;
+        private long searchBuildNanos;
+        private final Map<String, long[]> latencies = new LinkedHashMap<>();
+
+        Result(int size, int teams) {
+            this.size = size;
+            this.teams = teams;
+        }
+    }
+
+    /**
+     * Constructs a scale test.
+     *
+     * @param skew          the Zipf exponent spreading players and games over teams, 0 for an even spread
+     * @param duplicateRate the share of generated rows repeating an earlier key
+     * @param lookups       the number of timed calls of each lookup per size
+     * @param offHeap       whether players and games are kept in direct memory outside the heap
+     */
+    public ScaleTest(double skew, double duplicateRate, int lookups, boolean offHeap) {
+        this.skew = skew;
+        this.duplicateRate = duplicateRate;
+        this.lookups = lookups;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Generates, loads and queries a league with the given number of players and games.
+     *
+     * @param size the number of players and of games
+     * @return the measurements
+     * @throws Exception if the league cannot be generated or loaded
+     */
+    private Result run(int size) throws Exception {
+        int teams = Math.max(MIN_TEAMS, size / PLAYERS_PER_TEAM);
+        Result result = new Result(size, teams);
+        Path dir = Files.createTempDirectory("nfl-scale");
+        try {
+            new LeagueGenerator(teams, size, size).setSkew(skew).setDuplicateRate(duplicateRate).write(dir);
+
+            List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) heapPools.add(pool);
+            }
+            System.gc();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long before = usedHeap();
+
+            TeamManager teamManager = new TeamManager();
+            PlayerManager playerManager = new PlayerManager(offHeap);
+            GameManager gameManager = new GameManager(offHeap);
+            StartupLoader loader = new StartupLoader(teamManager, playerManager, gameManager);
+            long start = System.nanoTime();
+            loader.load(dir.resolve("teams.csv").toString(), dir.resolve("players.csv").toString(),
+                    dir.resolve("games.csv").toString());
+            result.loadNanos = System.nanoTime() - start;
+            result.stages = loader.getTimings();
+            for (MemoryPoolMXBean pool : heapPools) {
+                result.peakHeap += pool.getPeakUsage().getUsed();
+            }
+            System.gc();
+            result.retainedHeap = usedHeap() - before;
+            result.offHeapBytes = playerManager.getOffHeapBytes() + gameManager.getOffHeapBytes();
+
+            measureLookups(result, teamManager, playerManager, gameManager);
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+        return result;
+    }
+
+    private void measureLookups(Result result, TeamManager teamManager, PlayerManager playerManager,
+                                GameManager gameManager) {
+        Random random = new Random(BenchData.SEED);
+        String[] teams = new String[lookups];
+        String[] missingTeams = new String[lookups];
+        String[] players = new String[lookups];
+        String[] missingPlayers = new String[lookups];
+        String[] queries = new String[lookups];
+        LocalDate[] weeks = new LocalDate[lookups];
+        List<LocalDate> dates = new ArrayList<>();
+        gameManager.getGames().forEach(game -> dates.add(LocalDate.parse(game.getDate())));
+        dates.sort(Comparator.naturalOrder());
+        for (int i = 0; i < lookups; i++) {
+            // Mixed case exercises the case-insensitive match
+            teams[i] = LeagueGenerator.teamName(random.nextInt(result.teams)).toUpperCase();
+            missingTeams[i] = "Missing " + i;
+            players[i] = LeagueGenerator.playerId(random.nextInt(result.size));
+            missingPlayers[i] = "X" + i;
+            Player player = playerManager.findPlayer(players[i]);
+            String name = player != null ? player.getName() : "Tom Brady";
+            queries[i] = name.substring(0, Math.min(name.length(), 6));
+            weeks[i] = dates.isEmpty() ? LocalDate.of(2000, 9, 7) : dates.get(random.nextInt(dates.size()));
+        }
+
+        // The first search builds the name index
+        long start = System.nanoTime();
+        playerManager.searchPlayers(queries[0], SEARCH_LIMIT);
+        result.searchBuildNanos = System.nanoTime() - start;
+
+        time(result, "findTeam hit", i -> teamManager.findTeam(teams[i]));
+        time(result, "findTeam miss", i -> teamManager.findTeam(missingTeams[i]));
+        time(result, "findPlayer hit", i -> playerManager.findPlayer(players[i]));
+        time(result, "findPlayer miss", i -> playerManager.findPlayer(missingPlayers[i]));
+        time(result, "findGamesByTeam", i -> gameManager.findGamesByTeam(teams[i]));
+        time(result, "findGamesBetween week", i -> gameManager.findGamesBetween(weeks[i], weeks[i].plusDays(6)));
+        time(result, "searchPlayers", i -> playerManager.searchPlayers(queries[i], SEARCH_LIMIT));
+        time(result, "rosterStats league", i -> teamManager.getLeagueRosterStats());
+    }
+
+    private void time(Result result, String operation, IntConsumer lookup) {
+        long[] nanos = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            lookup.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        result.latencies.put(operation, nanos);
+    }
+
+    private static long usedHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(sorted.length * percentile / 100);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static void display(List<Result> results, Writer out) throws IOException {
+        TableWriter table = new TableWriter(out, 10, 8, 10, 14, 14, 13, 12);
+        table.line("---------------------------------------------------------------------------------------");
+        table.header("Size", "Teams", "Load ms", "Peak heap MB", "Retained MB", "Off-heap MB", "Search ms");
+        table.line("---------------------------------------------------------------------------------------");
+        for (Result result : results) {
+            table.cell(result.size)
+                    .cell(result.teams)
+                    .cell(millis(result.loadNanos))
+                    .cell(String.format("%.1f", result.peakHeap / 1048576.0))
+                    .cell(String.format("%.1f", result.retainedHeap / 1048576.0))
+                    .cell(String.format("%.1f", result.offHeapBytes / 1048576.0))
+                    .cell(millis(result.searchBuildNanos))
+                    .endRow();
+        }
+        table.flush();
+
+        table = new TableWriter(out, 10, 24, 10, 10, 10);
+        table.line("--------------------------------------------------------------------");
+        table.header("Size", "Lookup", "p50 us", "p99 us", "Max us");
+        table.line("--------------------------------------------------------------------");
+        for (Result result : results) {
+            for (Map.Entry<String, long[]> entry : result.latencies.entrySet()) {
+                long[] nanos = entry.getValue();
+                table.cell(result.size)
+                        .cell(entry.getKey())
+                        .cell(micros(percentile(nanos, 50)))
+                        .cell(micros(percentile(nanos, 99)))
+                        .cell(micros(percentile(nanos, 100)))
+                        .endRow();
+            }
+        }
+        table.flush();
+    }
+
+    private static String toJson(List<Result> results) {
+        JsonWriter json = new JsonWriter(1024 * results.size() + 2).beginArray();
+        for (Result result : results) {
+            json.beginObject()
+                    .name("size").value(result.size)
+                    .name("teams").value(result.teams)
+                    .name("loadNanos").value(result.loadNanos)
+                    .name("stageNanos").beginObject();
+            result.stages.forEach((stage, nanos) -> json.name(stage).value(nanos));
+            json.endObject()
+                    .name("peakHeapBytes").value(result.peakHeap)
+                    .name("retainedHeapBytes").value(result.retainedHeap)
+                    .name("offHeapBytes").value(result.offHeapBytes)
+                    .name("searchBuildNanos").value(result.searchBuildNanos)
+                    .name("lookups").beginObject();
+            for (Map.Entry<String, long[]> entry : result.latencies.entrySet()) {
+                long[] nanos = entry.getValue();
+                json.name(entry.getKey()).beginObject()
+                        .name("p50Nanos").value(percentile(nanos, 50))
+                        .name("p99Nanos").value(percentile(nanos, 99))
+                        .name("maxNanos").value(percentile(nanos, 100))
+                        .endObject();
+            }
+            json.endObject().endObject();
+        }
+        return json.endArray().toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1_000.0);
+    }
+
+    /**
+     * Runs the scale test for each size and prints the results, stopping at the first size that fails to load.
+     *
+     * @param args any of --sizes, --skew, --duplicates, --lookups, --off-heap and --json
+     * @throws Exception if a league cannot be generated or the results cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args, 0);
+        ScaleTest test = new ScaleTest(options.getDouble("--skew", 0), options.getDouble("--duplicates", 0),
+                options.getInt("--lookups", 10_000), Boolean.parseBoolean(options.get("--off-heap", "false")));
+        List<Result> results = new ArrayList<>();
+        for (String size : options.get("--sizes", "1000,100000,1000000").split(",")) {
+            int rows = Integer.parseInt(size.trim().replace("_", ""));
+            System.out.println("Running " + rows + " rows...");
+            try {
+                results.add(test.run(rows));
+            } catch (Exception e) {
+                System.out.println("Failed at " + rows + " rows: " + e.getMessage());
+                break;
+            } catch (OutOfMemoryError e) {
+                System.out.println("Out of memory at " + rows + " rows");
+                break;
+            }
+        }
+        Writer out = TableWriter.standardOut();
+        display(results, out);
+        String json = options.get("--json", null);
+        if (json != null) {
+            Files.writeString(Path.of(json), toJson(results));
+            System.out.println("Results saved to " + json);
+        }
+    }
+}
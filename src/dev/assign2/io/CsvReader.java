@@ -0,0 +1,450 @@
+/**
+ * Streaming CSV tokenizer shared by the team, player and game loaders.
+ * Bytes are read in large blocks from a file channel and split into fields in place,
+ * so no per-row String[] is allocated and numeric fields are parsed straight from the bytes.
+ * Gzip-compressed files are recognised by their header and decompressed on a separate thread while they are parsed.
+ */
+package dev.assign2.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+public final class CsvReader {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final long MAX_CHUNK = 1L << 30;
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    /**
+     * Receives each parsed row. The row object is reused, so it must not be kept after the call returns.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Handles one row of the CSV input.
+         *
+         * @param row the current row
+         * @throws Exception if the row is rejected by the caller
+         */
+        void handle(Row row) throws Exception;
+    }
+
+    private final RowHandler handler;
+    private final Row row = new Row();
+    private boolean inQuotes;
+    private boolean afterQuote;
+    private boolean touched;
+    private int rows;
+
+    private CsvReader(RowHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Reads every row of a CSV file, which may be gzip-compressed.
+     *
+     * @param path    the file to read
+     * @param handler callback invoked once per non-blank row
+     * @return the number of rows handled
+     * @throws IOException if the file cannot be read or decompressed, or ends inside a quoted field
+     * @throws Exception   if the handler rejects a row
+     */
+    public static int read(Path path, RowHandler handler) throws Exception {
+        try (ReadableByteChannel channel = open(path)) {
+            return read(channel, handler);
+        }
+    }
+
+    /**
+     * Opens a CSV file for reading. A gzip-compressed file is decompressed on its own thread, a few blocks
+     * ahead of the reader, so inflating overlaps with parsing; other files are read directly.
+     *
+     * @param path the file to open
+     * @return a channel over the CSV bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public static ReadableByteChannel open(Path path) throws IOException {
+        return isCompressed(path) ? GzipChannel.open(path) : FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    /**
+     * Returns whether a file starts with a gzip header. Compressed files cannot be split or read at offsets,
+     * so callers that do either fall back to reading them from the start with {@link #open}.
+     *
+     * @param path the file to check
+     * @return true if the file is gzip-compressed
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCompressed(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until both bytes are in
+            }
+            return !header.hasRemaining() && header.getShort(0) == (short) GZIP_MAGIC;
+        }
+    }
+
+    /**
+     * Reads every row available from a channel. The channel is not closed.
+     *
+     * @param channel the source of CSV bytes
+     * @param handler callback invoked once per non-blank row
+     * @return the number of rows handled
+     * @throws IOException if the channel cannot be read or ends inside a quoted field
+     * @throws Exception   if the handler rejects a row
+     */
+    public static int read(ReadableByteChannel channel, RowHandler handler) throws Exception {
+        CsvReader reader = new CsvReader(handler);
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        while (channel.read(block) != -1) {
+            reader.feed(block.array(), 0, block.position());
+            block.clear();
+        }
+        return reader.finish();
+    }
+
+    /**
+     * Reads every row in the remaining bytes of a buffer, for example a mapped region of a file.
+     * The buffer's position is advanced to its limit.
+     *
+     * @param buffer  the CSV bytes
+     * @param handler callback invoked once per non-blank row
+     * @return the number of rows handled
+     * @throws IOException if the buffer ends inside a quoted field
+     * @throws Exception   if the handler rejects a row
+     */
+    public static int read(ByteBuffer buffer, RowHandler handler) throws Exception {
+        CsvReader reader = new CsvReader(handler);
+        if (buffer.hasArray()) {
+            reader.feed(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        } else {
+            byte[] block = new byte[Math.min(BLOCK_SIZE, buffer.remaining())];
+            while (buffer.hasRemaining()) {
+                int len = Math.min(block.length, buffer.remaining());
+                buffer.get(block, 0, len);
+                reader.feed(block, 0, len);
+            }
+        }
+        return reader.finish();
+    }
+
+    /**
+     * Splits a file into roughly equal byte ranges whose boundaries fall just after a line break,
+     * so each range can be parsed independently. Each range is kept below 1 GB so it can be mapped.
+     *
+     * @param channel the file to split
+     * @param chunks  the desired number of ranges
+     * @return ascending offsets starting at 0 and ending at the file size; range i is [offsets[i], offsets[i + 1])
+     * @throws IOException if the file cannot be read
+     */
+    public static long[] lineAlignedChunks(FileChannel channel, int chunks) throws IOException {
+        long size = channel.size();
+        long step = Math.max(1, Math.min(MAX_CHUNK, (size + chunks - 1) / chunks));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long next = step;
+        while (next < size) {
+            long cut = -1;
+            long pos = next;
+            // Advance to the byte after the next line break
+            while (cut < 0 && pos < size) {
+                probe.clear();
+                int n = channel.read(probe, pos);
+                if (n <= 0) break;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') {
+                        cut = pos + i + 1;
+                        break;
+                    }
+                }
+                pos += n;
+            }
+            if (cut < 0 || cut >= size) break;
+            bounds.add(cut);
+            next = cut + step;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    /**
+     * Finds where rows start in a file without decoding them, so the rows can be read back later from their offsets.
+     * Rows are counted exactly as {@link #read} counts them: blank lines are skipped and quoted fields may hold
+     * line breaks. Only the offset of every {@code every}-th row is reported, starting with the first row,
+     * followed by the end of the file, so consecutive reported offsets bound a run of {@code every} rows.
+     *
+     * @param channel the file to scan, read from its current position to the end
+     * @param every   the spacing between reported rows
+     * @param offsets receives the reported offsets in ascending order
+     * @return the number of rows found
+     * @throws IOException if the file cannot be read or ends inside a quoted field
+     */
+    public static int rowOffsets(FileChannel channel, int every, LongConsumer offsets) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long position = channel.position();
+        long lineStart = position;
+        int rows = 0;
+        boolean inQuotes = false;
+        boolean afterQuote = false;
+        boolean fieldEmpty = true;
+        boolean touched = false;
+        int n;
+        while ((n = channel.read(block)) != -1) {
+            byte[] bytes = block.array();
+            for (int i = 0; i < n; i++) {
+                byte b = bytes[i];
+                // Mirrors feed(), tracking only whether the current field and row have content
+                if (inQuotes) {
+                    if (b == '"') {
+                        inQuotes = false;
+                        afterQuote = true;
+                    } else {
+                        fieldEmpty = false;
+                    }
+                    continue;
+                }
+                if (b == '"') {
+                    touched = true;
+                    if (afterQuote) {
+                        fieldEmpty = false;
+                        inQuotes = true;
+                        afterQuote = false;
+                    } else if (fieldEmpty) {
+                        inQuotes = true;
+                    }
+                    continue;
+                }
+                afterQuote = false;
+                switch (b) {
+                    case ',' -> {
+                        touched = true;
+                        fieldEmpty = true;
+                    }
+                    case '\n' -> {
+                        if (touched) {
+                            if (rows % every == 0) offsets.accept(lineStart);
+                            rows++;
+                        }
+                        lineStart = position + i + 1;
+                        touched = false;
+                        fieldEmpty = true;
+                    }
+                    case '\r' -> { }
+                    default -> {
+                        touched = true;
+                        fieldEmpty = false;
+                    }
+                }
+            }
+            position += n;
+            block.clear();
+        }
+        if (inQuotes) {
+            throw new IOException("Unterminated quoted field at row " + (rows + 1));
+        }
+        if (touched) {
+            if (rows % every == 0) offsets.accept(lineStart);
+            rows++;
+        }
+        offsets.accept(position);
+        return rows;
+    }
+
+    private void feed(byte[] bytes, int offset, int length) throws Exception {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = bytes[i];
+            if (inQuotes) {
+                if (b == '"') {
+                    inQuotes = false;
+                    afterQuote = true;
+                } else {
+                    row.append(b);
+                }
+                continue;
+            }
+            if (b == '"') {
+                touched = true;
+                if (afterQuote) {
+                    // Doubled quote inside a quoted field
+                    row.append(b);
+                    inQuotes = true;
+                    afterQuote = false;
+                } else if (row.currentFieldIsEmpty()) {
+                    inQuotes = true;
+                } else {
+                    row.append(b);
+                }
+                continue;
+            }
+            afterQuote = false;
+            switch (b) {
+                case ',' -> {
+                    touched = true;
+                    row.endField();
+                }
+                case '\n' -> endRow();
+                case '\r' -> { }
+                default -> {
+                    touched = true;
+                    row.append(b);
+                }
+            }
+        }
+    }
+
+    private int finish() throws Exception {
+        if (inQuotes) {
+            throw new IOException("Unterminated quoted field at row " + (rows + 1));
+        }
+        endRow();
+        return rows;
+    }
+
+    private void endRow() throws Exception {
+        if (touched) {
+            row.endField();
+            rows++;
+            if (rows == 1) {
+                row.expectedSize = row.size;
+            }
+            row.number = rows;
+            handler.handle(row);
+        }
+        row.reset();
+        touched = false;
+        afterQuote = false;
+    }
+
+    /**
+     * A single CSV row whose fields are decoded lazily from the underlying bytes.
+     */
+    public static final class Row {
+        private byte[] data = new byte[256];
+        private int length;
+        private int[] ends = new int[16];
+        private int size;
+        private int fieldStart;
+        private int expectedSize;
+        private int number;
+
+        private Row() {
+        }
+
+        /**
+         * Returns the number of fields in this row.
+         *
+         * @return field count
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the number of fields in the first row of the input, which callers use as the expected width.
+         *
+         * @return field count of the first row
+         */
+        public int expectedSize() {
+            return expectedSize;
+        }
+
+        /**
+         * Returns the 1-based position of this row among the non-blank rows of the input.
+         *
+         * @return row number
+         */
+        public int number() {
+            return number;
+        }
+
+        /**
+         * Decodes a field as a UTF-8 string.
+         *
+         * @param index the field index
+         * @return the field value
+         */
+        public String getString(int index) {
+            int start = start(index);
+            return new String(data, start, ends[index] - start, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Parses a field as a decimal int, ignoring surrounding spaces.
+         *
+         * @param index the field index
+         * @return the parsed value
+         * @throws NumberFormatException if the field is not a valid int
+         */
+        public int getInt(int index) {
+            int start = start(index);
+            int end = ends[index];
+            while (start < end && data[start] == ' ') start++;
+            while (end > start && data[end - 1] == ' ') end--;
+            if (start == end) throw new NumberFormatException("Empty numeric field " + index);
+
+            boolean negative = data[start] == '-';
+            int i = (negative || data[start] == '+') ? start + 1 : start;
+            if (i == end) throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = data[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+                }
+                value = value * 10 + digit;
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw new NumberFormatException("Value out of range: \"" + getString(index) + "\"");
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Value out of range: \"" + getString(index) + "\"");
+            }
+            return (int) value;
+        }
+
+        private int start(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Field " + index + " of " + size);
+            }
+            return index == 0 ? 0 : ends[index - 1];
+        }
+
+        private void append(byte b) {
+            if (length == data.length) data = Arrays.copyOf(data, length * 2);
+            data[length++] = b;
+        }
+
+        private boolean currentFieldIsEmpty() {
+            return length == fieldStart;
+        }
+
+        private void endField() {
+            if (size == ends.length) ends = Arrays.copyOf(ends, size * 2);
+            ends[size++] = length;
+            fieldStart = length;
+        }
+
+        private void reset() {
+            length = 0;
+            size = 0;
+            fieldStart = 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * A channel over the decompressed bytes of a gzip file.
+ * A separate thread inflates the file into a few blocks ahead of the reader, so decompression overlaps with
+ * parsing and the expanded data never goes to disk. Blocks are recycled between the two threads.
+ * Concatenated gzip members are read as one stream. Closing the channel stops the thread.
+ */
+package dev.assign2.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+final class GzipChannel implements ReadableByteChannel {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    // Inflated blocks waiting for the reader; the inflater stops when they are all full
+    private static final int BLOCKS_AHEAD = 4;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(BLOCKS_AHEAD + 1);
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(BLOCKS_AHEAD + 1);
+    private final Thread inflater;
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private boolean closed;
+
+    private GzipChannel(InputStream in, String name) {
+        for (int i = 0; i < BLOCKS_AHEAD; i++) {
+            free.add(ByteBuffer.allocate(BLOCK_SIZE));
+        }
+        inflater = new Thread(() -> inflate(in), "gunzip-" + name);
+        inflater.setDaemon(true);
+    }
+
+    /**
+     * Opens a gzip file and starts inflating it.
+     *
+     * @throws IOException if the file cannot be opened or does not start with a gzip header
+     */
+    static GzipChannel open(Path path) throws IOException {
+        InputStream file = Files.newInputStream(path);
+        GZIPInputStream in;
+        try {
+            in = new GZIPInputStream(file, BLOCK_SIZE);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        GzipChannel channel = new GzipChannel(in, path.getFileName().toString());
+        channel.inflater.start();
+        return channel;
+    }
+
+    /**
+     * Runs on the inflater thread: fills free blocks until the end of the file, then queues the end marker.
+     */
+    private void inflate(InputStream in) {
+        try (in) {
+            while (true) {
+                ByteBuffer block = free.take();
+                int length = in.readNBytes(block.array(), 0, BLOCK_SIZE);
+                if (length == 0) break;
+                block.clear().limit(length);
+                full.put(block);
+            }
+        } catch (InterruptedException e) {
+            // Closed by the reader
+            return;
+        } catch (IOException e) {
+            failure = e;
+        }
+        // Room for the marker is always left, since only BLOCKS_AHEAD blocks exist
+        full.add(END);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (closed) throw new ClosedChannelException();
+        if (current == END) return -1;
+        if (current == null || !current.hasRemaining()) {
+            if (current != null) free.add(current);
+            try {
+                current = full.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+            }
+            if (current == END) {
+                if (failure != null) throw new IOException(failure.getMessage(), failure);
+                return -1;
+            }
+        }
+        int length = Math.min(dst.remaining(), current.remaining());
+        dst.put(dst.position(), current, current.position(), length);
+        dst.position(dst.position() + length);
+        current.position(current.position() + length);
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        inflater.interrupt();
+    }
+}
@@ -0,0 +1,379 @@
+/**
+ * An append-only log of changes made after loading, so they survive a crash without rewriting the data files.
+ * Each record is a type byte and a list of string fields, framed by its length and a CRC32 checksum.
+ * Appends use group commit: callers that arrive while a write is being forced to disk queue their records,
+ * and the next caller writes and forces the whole queue at once, so many writers share one fsync.
+ * On replay a torn or corrupt record at the end of the file marks the end of the log and is cut off.
+ * Compaction drops the records a snapshot already holds by rewriting only the remaining tail; the dropped records
+ * can be kept in an archive in the same format, for loads that cannot use the snapshot.
+ */
+package dev.assign2.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public final class Journal implements Closeable {
+
+    /** A team was added: name, city, coach name, years of experience. */
+    public static final byte ADD_TEAM = 1;
+    /** A player was added or replaced: ID, name, age, team name, position. */
+    public static final byte PUT_PLAYER = 2;
+    /** A player moved: ID, new team name. */
+    public static final byte MOVE_PLAYER = 3;
+    /** A player was removed: ID. */
+    public static final byte REMOVE_PLAYER = 4;
+
+    // Length and checksum in front of every record
+    private static final int HEADER = 8;
+    private static final int MAX_RECORD = 1 << 20;
+
+    private final Path path;
+    private FileChannel channel;
+
+    private final Object lock = new Object();
+    // Records appended but not yet written; guarded by lock
+    private Batch pending = new Batch();
+    private long appended;
+    private long durable;
+    private boolean flushing;
+    private IOException failure;
+
+    /**
+     * Receives the records of a journal during replay.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * Applies one record.
+         *
+         * @param type   the record type
+         * @param fields the record fields
+         * @throws Exception if the record cannot be applied
+         */
+        void handle(byte type, String[] fields) throws Exception;
+    }
+
+    /**
+     * Encoded records waiting to be written, and the sequence number of the last of them.
+     */
+    private static final class Batch extends ByteArrayOutputStream {
+        private long last;
+
+        Batch() {
+            super(4096);
+        }
+
+        ByteBuffer buffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private Journal(Path path) throws IOException {
+        this.path = path;
+        this.channel = openForAppend(path);
+    }
+
+    /**
+     * Opens a journal for appending, creating the file if needed. Replay it first, since replay also
+     * cuts off a torn record left by a crash.
+     *
+     * @param path the journal file
+     * @return the open journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static Journal open(Path path) throws IOException {
+        return new Journal(path);
+    }
+
+    /**
+     * Reads every intact record of a journal in order. A damaged record ends the log and is truncated away.
+     *
+     * @param path    the journal file; a missing file holds no records
+     * @param handler applies each record
+     * @return the number of records replayed
+     * @throws Exception if the file cannot be read or the handler fails
+     */
+    public static int replay(Path path, RecordHandler handler) throws Exception {
+        if (!Files.exists(path)) return 0;
+        int records = 0;
+        long end = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Read into the heap rather than mapping, so the file can be truncated afterwards on every platform
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(in.size()));
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            buffer.flip();
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= HEADER) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > MAX_RECORD || length > buffer.remaining()) break;
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) break;
+                buffer.position(buffer.position() + length);
+                byte type = record.get();
+                String[] fields = new String[record.get() & 0xFF];
+                for (int i = 0; i < fields.length; i++) {
+                    byte[] bytes = new byte[record.getInt()];
+                    record.get(bytes);
+                    fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                handler.handle(type, fields);
+                records++;
+                end = buffer.position();
+            }
+            if (end < in.size()) {
+                in.truncate(end);
+                in.force(true);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends one record and returns once it is on disk.
+     *
+     * @param type   the record type
+     * @param fields the record fields
+     * @throws IOException if the record cannot be written
+     */
+    public void append(byte type, String... fields) throws IOException {
+        await(enqueue(type, fields));
+    }
+
+    /**
+     * Queues one record without waiting for it to reach the disk. Records are written in the order
+     * they are queued, so callers can queue under their own lock and wait after releasing it.
+     *
+     * @param type   the record type
+     * @param fields the record fields
+     * @return the sequence number to pass to {@link #await}
+     * @throws IOException if the record is too large
+     */
+    public long enqueue(byte type, String... fields) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(64);
+        encode(encoded, type, fields);
+        synchronized (lock) {
+            encoded.writeTo(pending);
+            return pending.last = ++appended;
+        }
+    }
+
+    /**
+     * Queues several records of one type, to be written together.
+     *
+     * @param type    the record type
+     * @param records the fields of each record
+     * @return the sequence number of the last record, to pass to {@link #await}
+     * @throws IOException if a record is too large; none are queued in that case
+     */
+    public long enqueueAll(byte type, List<String[]> records) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(64 * records.size() + 16);
+        for (String[] fields : records) {
+            encode(encoded, type, fields);
+        }
+        synchronized (lock) {
+            encoded.writeTo(pending);
+            appended += records.size();
+            return pending.last = appended;
+        }
+    }
+
+    /**
+     * Returns the size of the journal file, which covers every record already on disk.
+     *
+     * @return size in bytes
+     * @throws IOException if the size cannot be read
+     */
+    public long size() throws IOException {
+        synchronized (lock) {
+            awaitIdle();
+            return channel.size();
+        }
+    }
+
+    /**
+     * Drops the first bytes of the journal, for example once a snapshot holds every record in them.
+     * The rest of the file is copied to a new journal that replaces the old one atomically.
+     *
+     * @param upTo the number of leading bytes to drop, as returned by {@link #size()} before the snapshot
+     * @throws IOException if the journal cannot be rewritten
+     */
+    public void compact(long upTo) throws IOException {
+        compact(upTo, null);
+    }
+
+    /**
+     * Drops the first bytes of the journal like {@link #compact(long)}, first appending them to an archive
+     * that {@link #replay} can read. The archive is replaced atomically too, so a crash never leaves a torn
+     * record in it; a crash between the two replacements leaves the records in both files, and replaying
+     * them twice changes nothing.
+     *
+     * @param upTo    the number of leading bytes to drop, as returned by {@link #size()} before the snapshot
+     * @param archive the file to keep the dropped records in, created if needed, or null to discard them
+     * @throws IOException if the archive or the journal cannot be rewritten
+     */
+    public void compact(long upTo, Path archive) throws IOException {
+        synchronized (lock) {
+            awaitIdle();
+            flushing = true;
+        }
+        try {
+            if (archive != null && upTo > 0) {
+                Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    if (Files.exists(archive)) {
+                        try (FileChannel in = FileChannel.open(archive, StandardOpenOption.READ)) {
+                            transfer(in, 0, in.size(), out);
+                        }
+                    }
+                    transfer(channel, 0, upTo, out);
+                    out.force(true);
+                }
+                Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                transfer(channel, upTo, channel.size(), out);
+                out.force(true);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = openForAppend(path);
+        } finally {
+            synchronized (lock) {
+                flushing = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static void transfer(FileChannel in, long position, long end, FileChannel out) throws IOException {
+        while (position < end) {
+            position += in.transferTo(position, end - position, out);
+        }
+    }
+
+    /**
+     * Writes any queued records and closes the file.
+     *
+     * @throws IOException if queued records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        long sequence;
+        synchronized (lock) {
+            sequence = appended;
+        }
+        try {
+            await(sequence);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Waits until a queued record and every record before it is on disk. The first waiting caller writes
+     * and forces every queued record; callers arriving meanwhile wait for that write, and then one of them
+     * writes everything queued in the meantime.
+     *
+     * @param sequence the sequence number returned when the record was queued
+     * @throws IOException if the records cannot be written
+     */
+    public void await(long sequence) throws IOException {
+        Batch batch;
+        synchronized (lock) {
+            while (true) {
+                if (durable >= sequence) return;
+                if (failure != null) throw new IOException("Journal write failed", failure);
+                if (!flushing) break;
+                waitForLock();
+            }
+            flushing = true;
+            batch = pending;
+            pending = new Batch();
+        }
+        try {
+            ByteBuffer buffer = batch.buffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+                flushing = false;
+                lock.notifyAll();
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            durable = Math.max(durable, batch.last);
+            flushing = false;
+            lock.notifyAll();
+        }
+    }
+
+    private void awaitIdle() throws IOException {
+        while (flushing) {
+            waitForLock();
+        }
+        if (failure != null) throw new IOException("Journal write failed", failure);
+    }
+
+    private void waitForLock() throws IOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal", e);
+        }
+    }
+
+    private static void encode(ByteArrayOutputStream out, byte type, String[] fields) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        payload.write(type);
+        payload.write(fields.length);
+        for (String field : fields) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+            writeInt(payload, bytes.length);
+            payload.write(bytes);
+        }
+        if (payload.size() > MAX_RECORD) throw new IOException("Journal record too large");
+        CRC32 crc = new CRC32();
+        crc.update(payload.toByteArray());
+        writeInt(out, payload.size());
+        writeInt(out, (int) crc.getValue());
+        payload.writeTo(out);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static FileChannel openForAppend(Path path) throws IOException {
+        // Read access is needed by compaction; READ and APPEND cannot be combined, so start at the end instead
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+}
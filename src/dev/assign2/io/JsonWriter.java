@@ -0,0 +1,180 @@
+/**
+ * Builds compact JSON text in a reusable buffer.
+ * Objects and arrays are written as a stream of calls; commas are inserted automatically,
+ * and strings are escaped as required by RFC 8259.
+ */
+package dev.assign2.io;
+
+public final class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder buffer;
+    // True when the next value or name is the first in its object or array
+    private boolean first = true;
+
+    /**
+     * Constructs a JSON writer.
+     *
+     * @param capacity the initial buffer size in characters
+     */
+    public JsonWriter(int capacity) {
+        buffer = new StringBuilder(capacity);
+    }
+
+    /**
+     * Starts an object.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginObject() {
+        separate();
+        buffer.append('{');
+        first = true;
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        buffer.append('}');
+        first = false;
+        return this;
+    }
+
+    /**
+     * Starts an array.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginArray() {
+        separate();
+        buffer.append('[');
+        first = true;
+        return this;
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        buffer.append(']');
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the member name
+     * @return this writer
+     */
+    public JsonWriter name(String name) {
+        separate();
+        string(name);
+        buffer.append(':');
+        first = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            buffer.append("null");
+        } else {
+            string(value);
+        }
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(long value) {
+        separate();
+        buffer.append(value);
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes a number value. Values that JSON cannot represent are written as null.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(double value) {
+        separate();
+        if (Double.isFinite(value)) {
+            buffer.append(value);
+        } else {
+            buffer.append("null");
+        }
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     * @return this writer
+     */
+    public JsonWriter value(boolean value) {
+        separate();
+        buffer.append(value);
+        first = false;
+        return this;
+    }
+
+    /**
+     * Returns the JSON text written so far.
+     *
+     * @return the JSON text
+     */
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    private void separate() {
+        if (!first) {
+            buffer.append(',');
+        }
+    }
+
+    private void string(String value) {
+        buffer.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+            buffer.append(value, start, i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                default -> buffer.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        buffer.append(value, start, value.length()).append('"');
+    }
+}
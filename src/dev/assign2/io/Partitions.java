@@ -0,0 +1,456 @@
+/**
+ * Reads and writes all teams, players and games in a directory partitioned by team, so a session working with
+ * a few teams reads only their data. A small directory file lists every team together with where its players
+ * and games lie in two segment files; each team's players and games are stored contiguously. A game is stored
+ * with its first team and copied to its second, so a team's partition holds all of its games, and a full load
+ * reads only the first copies. Partitions are read in parallel on the common ForkJoinPool.
+ * Players whose team is not a loaded team, and games between two such teams, go to a partition of their own
+ * that only a full load reads.
+ */
+package dev.assign2.io;
+
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.PlayerStore;
+import dev.assign2.managers.SymbolTable;
+import dev.assign2.managers.TeamManager;
+import dev.assign2.models.Coach;
+import dev.assign2.models.Game;
+import dev.assign2.models.Player;
+import dev.assign2.models.Team;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public final class Partitions {
+
+    private static final int MAGIC = 0x4E464C50; // "NFLP"
+    private static final int VERSION = 1;
+    private static final String DIRECTORY = "partitions.dir";
+    private static final int GAME_FIELDS = 7;
+    private static final int GAME_BYTES = GAME_FIELDS * Integer.BYTES;
+
+    private Partitions() {
+    }
+
+    /**
+     * Where one team's players and games lie in the segment files. The team fields are -1 for the partition of
+     * players and games without a loaded team.
+     */
+    private static final class Partition {
+        int name = -1;
+        int city = -1;
+        int coachId = -1;
+        int coachName = -1;
+        int coachTeam = -1;
+        int experience;
+        long playersOffset;
+        int playersLength;
+        int playerCount;
+        long gamesOffset;
+        int homeGames;
+        int awayGames;
+
+        // Filled while saving only
+        final List<Player> players = new ArrayList<>();
+        final List<Game> home = new ArrayList<>();
+        final List<Game> away = new ArrayList<>();
+    }
+
+    /**
+     * The players and games read from one partition.
+     */
+    private static final class Contents {
+        final PlayerStore players = new PlayerStore();
+        final List<Game> games = new ArrayList<>();
+    }
+
+    /**
+     * Checks whether a partitioned directory exists and is newer than every source file.
+     *
+     * @param dir     the partitions directory
+     * @param sources the CSV files the partitions were built from
+     * @return true if the partitions can be used instead of the sources
+     */
+    public static boolean isFresh(Path dir, Path... sources) {
+        return Snapshot.isFresh(dir.resolve(DIRECTORY), sources);
+    }
+
+    /**
+     * Writes the current state of the managers into a partitions directory, creating it if needed.
+     * New segment files are written first and the directory file is replaced last, so a crash leaves either
+     * the old or the new partitions readable; segments no longer referenced are then deleted.
+     *
+     * @param dir           the partitions directory
+     * @param teamManager   the source of teams
+     * @param playerManager the source of players
+     * @param gameManager   the source of games
+     * @throws IOException if a file cannot be written
+     */
+    public static void save(Path dir, TeamManager teamManager, PlayerManager playerManager,
+                            GameManager gameManager) throws IOException {
+        List<Team> teams = teamManager.getTeams();
+        // Keyed by case-insensitive symbol key IDs of team names; the first team with a name owns it, as in lookups
+        Map<Integer, Partition> byKey = new HashMap<>();
+        List<Partition> partitions = new ArrayList<>(teams.size() + 1);
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Team team : teams) {
+            Partition partition = new Partition();
+            Coach coach = team.getCoach();
+            partition.name = id(team.getTeamName(), ids, strings);
+            partition.city = id(team.getCity(), ids, strings);
+            partition.coachId = id(coach.getCoachId(), ids, strings);
+            partition.coachName = id(coach.getName(), ids, strings);
+            partition.coachTeam = id(coach.getTeamName(), ids, strings);
+            partition.experience = coach.getYearsOfExperience();
+            byKey.putIfAbsent(SymbolTable.shared().keyId(team.getTeamName()), partition);
+            partitions.add(partition);
+        }
+        Partition unassigned = new Partition();
+        partitions.add(unassigned);
+
+        // Team names resolve as in the managers, so players and games land where a lookup would find them
+        Map<String, Partition> byName = new HashMap<>();
+        for (Player player : playerManager.getPlayers()) {
+            partition(player.getTeamName(), byKey, byName, unassigned).players.add(player);
+        }
+        for (Game game : gameManager.getGames()) {
+            Partition first = partition(game.getTeam1(), byKey, byName, unassigned);
+            Partition second = partition(game.getTeam2(), byKey, byName, unassigned);
+            Partition owner = first != unassigned ? first : second;
+            owner.home.add(game);
+            if (second != owner && second != unassigned) second.away.add(game);
+        }
+
+        Files.createDirectories(dir);
+        long generation = System.currentTimeMillis();
+        Path playersFile = dir.resolve("players-" + generation + ".seg");
+        Path gamesFile = dir.resolve("games-" + generation + ".seg");
+        Map<Partition, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            indexes.put(partitions.get(i), i);
+        }
+        try (FileChannel channel = FileChannel.open(playersFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            for (Partition partition : partitions) {
+                partition.playersOffset = out.size();
+                for (Player player : partition.players) {
+                    writeString(out, player.getPlayerId());
+                    writeString(out, player.getName());
+                    out.writeInt(player.getAge());
+                    out.writeInt(id(player.getTeamName(), ids, strings));
+                    out.writeInt(id(player.getPosition(), ids, strings));
+                }
+                partition.playersLength = Math.toIntExact(out.size() - partition.playersOffset);
+                partition.playerCount = partition.players.size();
+            }
+            out.flush();
+            channel.force(true);
+        }
+        try (FileChannel channel = FileChannel.open(gamesFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            long offset = 0;
+            for (Partition partition : partitions) {
+                partition.gamesOffset = offset;
+                partition.homeGames = partition.home.size();
+                partition.awayGames = partition.away.size();
+                for (Game game : partition.home) {
+                    writeGame(out, game, indexes.get(partition), ids, strings);
+                }
+                for (Game game : partition.away) {
+                    int owner = indexes.get(partition(game.getTeam1(), byKey, byName, unassigned));
+                    writeGame(out, game, owner, ids, strings);
+                }
+                offset += (long) (partition.homeGames + partition.awayGames) * GAME_BYTES;
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        Path directory = dir.resolve(DIRECTORY);
+        Path temp = dir.resolve(DIRECTORY + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                writeString(out, s);
+            }
+            out.writeInt(partitions.size());
+            for (Partition partition : partitions) {
+                out.writeInt(partition.name);
+                out.writeInt(partition.city);
+                out.writeInt(partition.coachId);
+                out.writeInt(partition.coachName);
+                out.writeInt(partition.coachTeam);
+                out.writeInt(partition.experience);
+                out.writeLong(partition.playersOffset);
+                out.writeInt(partition.playersLength);
+                out.writeInt(partition.playerCount);
+                out.writeLong(partition.gamesOffset);
+                out.writeInt(partition.homeGames);
+                out.writeInt(partition.awayGames);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, directory, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(dir, "*.seg")) {
+            for (Path segment : segments) {
+                if (!segment.equals(playersFile) && !segment.equals(gamesFile)) Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /**
+     * Restores every team with its players and games into empty managers, reading partitions in parallel.
+     *
+     * @param dir           the partitions directory
+     * @param teamManager   the TeamManager to restore teams into
+     * @param playerManager the PlayerManager to restore players into
+     * @param gameManager   the GameManager to restore games into
+     * @throws IOException if a file cannot be read or is corrupt
+     */
+    public static void load(Path dir, TeamManager teamManager, PlayerManager playerManager,
+                            GameManager gameManager) throws IOException {
+        load(dir, null, teamManager, playerManager, gameManager);
+    }
+
+    /**
+     * Restores some teams with their players and games into empty managers, reading only their partitions.
+     * Every game of a restored team is restored, including games against teams that are not.
+     * Names are matched ignoring case and surrounding spaces; names of unknown teams are ignored.
+     *
+     * @param dir           the partitions directory
+     * @param teamNames     the teams to restore, or null for all teams along with players and games without one
+     * @param teamManager   the TeamManager to restore teams into
+     * @param playerManager the PlayerManager to restore players into
+     * @param gameManager   the GameManager to restore games into
+     * @return the number of teams restored
+     * @throws IOException if a file cannot be read or is corrupt
+     */
+    public static int load(Path dir, Collection<String> teamNames, TeamManager teamManager,
+                           PlayerManager playerManager, GameManager gameManager) throws IOException {
+        Path directory = dir.resolve(DIRECTORY);
+        String[] strings;
+        Partition[] partitions;
+        long generation;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read the whole directory
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a partitions directory: " + dir);
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported partitions version " + version);
+            generation = buffer.getLong();
+            strings = new String[count(buffer, Integer.BYTES)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(buffer);
+            }
+            partitions = new Partition[count(buffer, 12 * Integer.BYTES)];
+            for (int i = 0; i < partitions.length; i++) {
+                Partition partition = new Partition();
+                partition.name = buffer.getInt();
+                partition.city = buffer.getInt();
+                partition.coachId = buffer.getInt();
+                partition.coachName = buffer.getInt();
+                partition.coachTeam = buffer.getInt();
+                partition.experience = buffer.getInt();
+                partition.playersOffset = buffer.getLong();
+                partition.playersLength = buffer.getInt();
+                partition.playerCount = buffer.getInt();
+                partition.gamesOffset = buffer.getLong();
+                partition.homeGames = buffer.getInt();
+                partition.awayGames = buffer.getInt();
+                partitions[i] = partition;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt partitions directory: " + directory);
+        }
+
+        // Team partitions to read; the last partition holds players and games without a team
+        boolean[] selected = new boolean[partitions.length];
+        SymbolTable symbols = SymbolTable.shared();
+        Set<Integer> wanted = new HashSet<>();
+        if (teamNames != null) {
+            for (String name : teamNames) {
+                wanted.add(symbols.keyId(name));
+            }
+        }
+        int teamCount = 0;
+        for (int i = 0; i < partitions.length; i++) {
+            Partition partition = partitions[i];
+            selected[i] = teamNames == null
+                    || partition.name >= 0 && wanted.remove(symbols.keyId(str(strings, partition.name)));
+            if (selected[i] && partition.name >= 0) teamCount++;
+        }
+
+        Path playersFile = dir.resolve("players-" + generation + ".seg");
+        Path gamesFile = dir.resolve("games-" + generation + ".seg");
+        Contents[] contents = new Contents[partitions.length];
+        try (FileChannel players = FileChannel.open(playersFile, StandardOpenOption.READ);
+             FileChannel games = FileChannel.open(gamesFile, StandardOpenOption.READ)) {
+            IntStream.range(0, partitions.length).parallel().filter(i -> selected[i]).forEach(i -> {
+                try {
+                    contents[i] = read(partitions[i], strings, selected, teamNames == null, players, games);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt partition segment in " + dir);
+        }
+
+        List<Team> teams = new ArrayList<>(teamCount);
+        PlayerStore loadedPlayers = new PlayerStore();
+        List<Game> loadedGames = new ArrayList<>();
+        for (int i = 0; i < partitions.length; i++) {
+            if (!selected[i]) continue;
+            Partition partition = partitions[i];
+            if (partition.name >= 0) {
+                Coach coach = new Coach(str(strings, partition.coachId), symbols.intern(str(strings, partition.coachName)),
+                        symbols.intern(str(strings, partition.coachTeam)), partition.experience);
+                teams.add(new Team(symbols.intern(str(strings, partition.name)),
+                        symbols.intern(str(strings, partition.city)), coach));
+            }
+            loadedPlayers.addAll(contents[i].players);
+            loadedGames.addAll(contents[i].games);
+        }
+        teamManager.addLoadedTeams(teams);
+        playerManager.addLoadedPlayers(loadedPlayers, teamManager);
+        gameManager.addLoadedGames(loadedGames);
+        return teamCount;
+    }
+
+    /**
+     * Reads one partition's players and games. Copies of games whose first team is also being read are skipped.
+     */
+    private static Contents read(Partition partition, String[] strings, boolean[] selected, boolean all,
+                                 FileChannel players, FileChannel games) throws IOException {
+        Contents contents = new Contents();
+        SymbolTable symbols = SymbolTable.shared();
+        ByteBuffer buffer = readFully(players, partition.playersOffset, partition.playersLength);
+        for (int i = 0; i < partition.playerCount; i++) {
+            String playerId = readString(buffer);
+            String name = readString(buffer);
+            int age = buffer.getInt();
+            contents.players.add(playerId, name, age, symbols.intern(str(strings, buffer.getInt())),
+                    symbols.intern(str(strings, buffer.getInt())));
+        }
+        int count = all ? partition.homeGames : partition.homeGames + partition.awayGames;
+        buffer = readFully(games, partition.gamesOffset, Math.multiplyExact(count, GAME_BYTES));
+        for (int i = 0; i < count; i++) {
+            String team1 = symbols.intern(str(strings, buffer.getInt()));
+            String team2 = symbols.intern(str(strings, buffer.getInt()));
+            int epochDay = buffer.getInt();
+            String location = symbols.intern(str(strings, buffer.getInt()));
+            int score1 = buffer.getInt();
+            int score2 = buffer.getInt();
+            int owner = buffer.getInt();
+            if (i >= partition.homeGames && selected[owner]) continue;
+            contents.games.add(new Game(team1, team2, epochDay, location, score1, score2));
+        }
+        return contents;
+    }
+
+    private static Partition partition(String teamName, Map<Integer, Partition> byKey, Map<String, Partition> byName,
+                                       Partition unassigned) {
+        return byName.computeIfAbsent(teamName, name -> {
+            int key = name != null ? SymbolTable.shared().findKeyId(name) : -1;
+            Partition found = key >= 0 ? byKey.get(key) : null;
+            return found != null ? found : unassigned;
+        });
+    }
+
+    private static void writeGame(DataOutputStream out, Game game, int owner, Map<String, Integer> ids,
+                                  List<String> strings) throws IOException {
+        out.writeInt(id(game.getTeam1(), ids, strings));
+        out.writeInt(id(game.getTeam2(), ids, strings));
+        out.writeInt(game.getEpochDay());
+        out.writeInt(id(game.getLocation(), ids, strings));
+        out.writeInt(game.getScore1());
+        out.writeInt(game.getScore2());
+        out.writeInt(owner);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Partition segment is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int id(String value, Map<String, Integer> ids, List<String> strings) {
+        if (value == null) return -1;
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = strings.size();
+            ids.put(value, id);
+            strings.add(value);
+        }
+        return id;
+    }
+
+    private static String str(String[] strings, int id) {
+        return id < 0 ? null : strings[id];
+    }
+
+    private static int count(ByteBuffer buffer, int minimumBytes) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * minimumBytes > buffer.remaining()) {
+            throw new IOException("Corrupt partitions record count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Reads and writes a compact binary snapshot of all loaded teams, players and games.
+ * The file holds a string dictionary followed by fixed-width int records that refer to it,
+ * and is read through a memory-mapped buffer so startup avoids CSV parsing entirely.
+ */
+package dev.assign2.io;
+
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.SymbolTable;
+import dev.assign2.managers.TeamManager;
+import dev.assign2.models.Coach;
+import dev.assign2.models.Game;
+import dev.assign2.models.Player;
+import dev.assign2.models.Team;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Snapshot {
+
+    private static final int MAGIC = 0x4E464C53; // "NFLS"
+    private static final int VERSION = 2;
+    private static final int TEAM_FIELDS = 6;
+    private static final int PLAYER_FIELDS = 5;
+    private static final int GAME_FIELDS = 6;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Checks whether a snapshot exists and is newer than every source file.
+     *
+     * @param snapshot the snapshot file
+     * @param sources  the CSV files the snapshot was built from
+     * @return true if the snapshot can be used instead of the sources
+     */
+    public static boolean isFresh(Path snapshot, Path... sources) {
+        try {
+            if (!Files.isRegularFile(snapshot)) return false;
+            long snapshotTime = Files.getLastModifiedTime(snapshot).toMillis();
+            for (Path source : sources) {
+                if (Files.exists(source) && Files.getLastModifiedTime(source).toMillis() > snapshotTime) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the current state of the managers to a snapshot file.
+     * The file is written next to the target and moved into place, so a crash never leaves a partial snapshot.
+     *
+     * @param snapshot      the snapshot file to write
+     * @param teamManager   the source of teams
+     * @param playerManager the source of players
+     * @param gameManager   the source of games
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(Path snapshot, TeamManager teamManager, PlayerManager playerManager,
+                            GameManager gameManager) throws IOException {
+        List<Team> teams = teamManager.getTeams();
+        List<Player> players = playerManager.getPlayers();
+        List<Game> games = gameManager.getGames();
+
+        // Assign dictionary ids in first-use order
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] teamRecords = new int[teams.size() * TEAM_FIELDS];
+        int i = 0;
+        for (Team team : teams) {
+            Coach coach = team.getCoach();
+            teamRecords[i++] = id(team.getTeamName(), ids, strings);
+            teamRecords[i++] = id(team.getCity(), ids, strings);
+            teamRecords[i++] = id(coach.getCoachId(), ids, strings);
+            teamRecords[i++] = id(coach.getName(), ids, strings);
+            teamRecords[i++] = id(coach.getTeamName(), ids, strings);
+            teamRecords[i++] = coach.getYearsOfExperience();
+        }
+        int[] playerRecords = new int[players.size() * PLAYER_FIELDS];
+        i = 0;
+        for (Player player : players) {
+            playerRecords[i++] = id(player.getPlayerId(), ids, strings);
+            playerRecords[i++] = id(player.getName(), ids, strings);
+            playerRecords[i++] = player.getAge();
+            playerRecords[i++] = id(player.getTeamName(), ids, strings);
+            playerRecords[i++] = id(player.getPosition(), ids, strings);
+        }
+        int[] gameRecords = new int[games.size() * GAME_FIELDS];
+        i = 0;
+        for (Game game : games) {
+            gameRecords[i++] = id(game.getTeam1(), ids, strings);
+            gameRecords[i++] = id(game.getTeam2(), ids, strings);
+            gameRecords[i++] = game.getEpochDay();
+            gameRecords[i++] = id(game.getLocation(), ids, strings);
+            gameRecords[i++] = game.getScore1();
+            gameRecords[i++] = game.getScore2();
+        }
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            writeRecords(out, teams.size(), teamRecords);
+            writeRecords(out, players.size(), playerRecords);
+            writeRecords(out, games.size(), gameRecords);
+            // The journal is compacted against this snapshot, so it must be on disk before it replaces the old one
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores teams, players and games from a snapshot file into empty managers.
+     * Nothing is added to the managers unless the whole file is read successfully.
+     *
+     * @param snapshot      the snapshot file to read
+     * @param teamManager   the TeamManager to restore teams into
+     * @param playerManager the PlayerManager to restore players into
+     * @param gameManager   the GameManager to restore games into, or null to skip the games
+     * @throws IOException if the file cannot be read, has the wrong version or is corrupt
+     */
+    public static void load(Path snapshot, TeamManager teamManager, PlayerManager playerManager,
+                            GameManager gameManager) throws IOException {
+        List<Team> teams;
+        List<Player> players;
+        List<Game> games;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a snapshot file: " + snapshot);
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+
+            // Every string holds at least its length
+            String[] strings = new String[checkedCount(buffer, 1)];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < strings.length; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Corrupt snapshot string length " + length);
+                }
+                if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            // Names, cities and locations are shared with the rest of the process through the symbol table
+            SymbolTable symbols = SymbolTable.shared();
+            int count = checkedCount(buffer, TEAM_FIELDS);
+            teams = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String teamName = symbols.intern(str(strings, buffer.getInt()));
+                String city = symbols.intern(str(strings, buffer.getInt()));
+                Coach coach = new Coach(str(strings, buffer.getInt()), symbols.intern(str(strings, buffer.getInt())),
+                        symbols.intern(str(strings, buffer.getInt())), buffer.getInt());
+                teams.add(new Team(teamName, city, coach));
+            }
+            count = checkedCount(buffer, PLAYER_FIELDS);
+            players = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String playerId = str(strings, buffer.getInt());
+                String name = str(strings, buffer.getInt());
+                int age = buffer.getInt();
+                players.add(new Player(playerId, name, age, str(strings, buffer.getInt()), str(strings, buffer.getInt())));
+            }
+            count = gameManager != null ? checkedCount(buffer, GAME_FIELDS) : 0;
+            games = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String team1 = symbols.intern(str(strings, buffer.getInt()));
+                String team2 = symbols.intern(str(strings, buffer.getInt()));
+                int epochDay = buffer.getInt();
+                String location = symbols.intern(str(strings, buffer.getInt()));
+                games.add(new Game(team1, team2, epochDay, location, buffer.getInt(), buffer.getInt()));
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt snapshot file: " + snapshot);
+        }
+
+        teamManager.addLoadedTeams(teams);
+        playerManager.addLoadedPlayers(players, teamManager);
+        if (gameManager != null) gameManager.addLoadedGames(games);
+    }
+
+    private static int id(String value, Map<String, Integer> ids, List<String> strings) {
+        if (value == null) return -1;
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = strings.size();
+            ids.put(value, id);
+            strings.add(value);
+        }
+        return id;
+    }
+
+    private static String str(String[] strings, int id) {
+        return id < 0 ? null : strings[id];
+    }
+
+    private static void writeRecords(DataOutputStream out, int count, int[] records) throws IOException {
+        out.writeInt(count);
+        for (int value : records) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int checkedCount(MappedByteBuffer buffer, int fields) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * fields * Integer.BYTES > buffer.remaining()) {
+            throw new IOException("Corrupt snapshot record count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Writes fixed-width text tables through a reusable buffer.
+ * Column widths are fixed up front, cells are padded by copying from a shared run of spaces,
+ * and output reaches the underlying writer in large blocks instead of one formatted call per row.
+ * The layout matches printf's left-aligned "%-Ns" columns separated by single spaces.
+ */
+package dev.assign2.io;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+public final class TableWriter {
+
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final char[] SPACES = new char[256];
+    private static final String NEWLINE = System.lineSeparator();
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
+
+    private final Writer out;
+    private final int[] widths;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private char[] chars = new char[FLUSH_THRESHOLD + 1024];
+    private int column;
+    private int cellStart;
+
+    /**
+     * Constructs a table writer.
+     *
+     * @param out    the destination of the table text
+     * @param widths the minimum width of each column; 0 means the column is not padded
+     */
+    public TableWriter(Writer out, int... widths) {
+        this.out = out;
+        this.widths = widths.clone();
+    }
+
+    /**
+     * Returns a writer to the current standard output that is flushed but never closed by tables.
+     *
+     * @return a writer over System.out
+     */
+    public static Writer standardOut() {
+        return new OutputStreamWriter(System.out, Charset.defaultCharset());
+    }
+
+    /**
+     * Writes a line as-is, for example a rule.
+     *
+     * @param line the text of the line
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public TableWriter line(String line) throws IOException {
+        buffer.append(line).append(NEWLINE);
+        cellStart = buffer.length();
+        return flushIfFull();
+    }
+
+    /**
+     * Writes a header row using the column layout.
+     *
+     * @param titles the column titles
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public TableWriter header(String... titles) throws IOException {
+        for (String title : titles) {
+            cell(title);
+        }
+        return endRow();
+    }
+
+    /**
+     * Writes a complete text cell.
+     *
+     * @param value the cell value
+     * @return this writer
+     */
+    public TableWriter cell(String value) {
+        return text(value).endCell();
+    }
+
+    /**
+     * Writes a complete numeric cell.
+     *
+     * @param value the cell value
+     * @return this writer
+     */
+    public TableWriter cell(int value) {
+        return number(value).endCell();
+    }
+
+    /**
+     * Appends text to the current cell without ending it.
+     *
+     * @param value the text to append
+     * @return this writer
+     */
+    public TableWriter text(String value) {
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a number to the current cell without ending it.
+     *
+     * @param value the number to append
+     * @return this writer
+     */
+    public TableWriter number(int value) {
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Ends the current cell, padding it to the column width and adding the column separator.
+     *
+     * @return this writer
+     */
+    public TableWriter endCell() {
+        int width = column < widths.length ? widths[column] : 0;
+        int padding = width - (buffer.length() - cellStart);
+        while (padding > 0) {
+            int n = Math.min(padding, SPACES.length);
+            buffer.append(SPACES, 0, n);
+            padding -= n;
+        }
+        column++;
+        buffer.append(' ');
+        cellStart = buffer.length();
+        return this;
+    }
+
+    /**
+     * Ends the current row.
+     *
+     * @return this writer
+     * @throws IOException if the destination cannot be written
+     */
+    public TableWriter endRow() throws IOException {
+        if (column > 0) {
+            // Drop the separator after the last cell
+            buffer.setLength(buffer.length() - 1);
+        }
+        buffer.append(NEWLINE);
+        column = 0;
+        cellStart = buffer.length();
+        return flushIfFull();
+    }
+
+    /**
+     * Writes any buffered text and flushes the destination.
+     *
+     * @throws IOException if the destination cannot be written
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private TableWriter flushIfFull() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            drain();
+        }
+        return this;
+    }
+
+    private void drain() throws IOException {
+        int length = buffer.length();
+        if (length > chars.length) chars = new char[length];
+        buffer.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+        buffer.setLength(0);
+        cellStart = 0;
+    }
+}
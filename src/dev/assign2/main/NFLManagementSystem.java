@@ -1,35 +1,154 @@
 /**
  * Main class for the NFL Management System application.
  * This class loads teams, players, and games from CSV files and provides a menu-driven interface.
+ * Started with {@code --serve [port]} it serves the same data over HTTP instead, see {@link QueryServer}.
+ * With {@code --watch} edits to the CSV files are applied while it runs, see {@link SourceWatcher}.
+ * With {@code --lazy-games} games are read from their CSV file a page at a time as they are needed.
+ * With {@code --teams} only the named teams, with their players and games, are loaded from the partitioned store.
+ * With {@code --off-heap} players and games are kept in direct memory outside the Java heap.
+ * Changes are recorded in a journal that is replayed at startup and folded into the snapshot when it grows.
+ * Folded records are kept in a delta file, which is replayed whenever the data is loaded from the CSV files instead.
  */
 package dev.assign2.main;
 
+import dev.assign2.io.Journal;
+import dev.assign2.io.Partitions;
+import dev.assign2.io.Snapshot;
+import dev.assign2.io.TableWriter;
 import dev.assign2.managers.GameManager;
 import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.SymbolTable;
 import dev.assign2.managers.TeamManager;
 import dev.assign2.models.Player;
 import dev.assign2.models.Team;
+import dev.assign2.util.Metrics;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class NFLManagementSystem {
 
+    private static final String TEAMS_CSV = "resources/teams.csv";
+    private static final String PLAYERS_CSV = "resources/players.csv";
+    private static final String GAMES_CSV = "resources/games.csv";
+    private static final Path SNAPSHOT = Path.of("resources/nfl.snapshot");
+    private static final Path JOURNAL = Path.of("resources/nfl.journal");
+    // Journal records already folded into a snapshot; the CSV files never hold them
+    private static final Path DELTA = Path.of("resources/nfl.delta");
+    private static final Path PARTITIONS = Path.of("resources/partitions");
+    private static final Path METRICS = Path.of("resources/metrics.json");
+    // Journal size above which its records are folded into a new snapshot
+    private static final long COMPACT_THRESHOLD = 1L << 20;
+    private static final int PAGE_SIZE = 100;
+    private static final int DEFAULT_PORT = 8080;
+    private static final int SEARCH_RESULTS = 10;
+
+    // Set when only some teams are loaded; checkpoints would then overwrite the snapshot with part of the data
+    private static volatile boolean partial;
+
+    /**
+     * Writes one page of a table.
+     */
+    @FunctionalInterface
+    private interface TablePage {
+        int write(Writer out, int first, int maxRows) throws IOException;
+    }
+
     /**
      * Main method that starts the NFL Management System application.
      *
-     * @param args command-line arguments
+     * @param args command-line arguments; {@code --serve [port]} starts the query server instead of the menu,
+     *             {@code --watch} applies changes to the CSV files while running, {@code --lazy-games}
+     *             defers reading games until they are displayed or queried, {@code --teams name,name}
+     *             loads only the named teams, and {@code --off-heap} keeps players and games off the Java heap
      */
     public static void main(String[] args) {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        boolean watch = options.remove("--watch");
+        // The watcher may see games.csv rewritten, which would leave lazily read pages pointing at the wrong rows
+        boolean lazyGames = options.remove("--lazy-games") && !watch;
+        boolean offHeap = options.remove("--off-heap");
+        List<String> teamNames = null;
+        int teamsOption = options.indexOf("--teams");
+        if (teamsOption >= 0) {
+            if (teamsOption + 1 == options.size() || options.get(teamsOption + 1).startsWith("--")) {
+                System.out.println("Usage: --teams name,name[,...]");
+                return;
+            }
+            teamNames = Arrays.asList(options.get(teamsOption + 1).split(","));
+            options.subList(teamsOption, teamsOption + 2).clear();
+            // Rows appended to teams.csv would add teams that were not selected
+            if (watch) {
+                System.out.println("--watch cannot be used with --teams; data files will not be watched.");
+                watch = false;
+            }
+        }
+        args = options.toArray(new String[0]);
+
         TeamManager teamManager = new TeamManager();
-        PlayerManager playerManager = new PlayerManager();
-        GameManager gameManager = new GameManager();
+        PlayerManager playerManager = new PlayerManager(offHeap);
+        GameManager gameManager = new GameManager(offHeap);
+
+        boolean fromCsv = false;
+        if (teamNames != null) {
+            if (!loadPartitions(teamNames, teamManager, playerManager, gameManager)) return;
+            playerManager.setPartial(true);
+        } else {
+            try {
+                if (!loadSnapshot(teamManager, playerManager, gameManager, lazyGames)) {
+                    fromCsv = true;
+                    StartupLoader loader = new StartupLoader(teamManager, playerManager, gameManager);
+                    loader.load(TEAMS_CSV, PLAYERS_CSV, GAMES_CSV, lazyGames);
+                    System.out.println(loader.formatTimings());
+                }
+            } catch (Exception e) {
+                System.out.println("Error loading data: " + e.getMessage());
+                return;
+            }
+        }
 
+        Journal journal;
         try {
-            teamManager.loadTeams("resources/teams.csv");
-            playerManager.loadPlayers("resources/players.csv", teamManager);
-            gameManager.loadGames("resources/games.csv");
+            Set<Integer> selected = selectedKeys(teamNames);
+            Journal.RecordHandler handler =
+                    (type, fields) -> replay(type, fields, selected, teamManager, playerManager);
+            int replayed = fromCsv ? Journal.replay(DELTA, handler) : 0;
+            replayed += Journal.replay(JOURNAL, handler);
+            if (replayed > 0) System.out.println("Replayed " + replayed + " journal records");
+            journal = Journal.open(JOURNAL);
         } catch (Exception e) {
-            System.out.println("Error loading data: " + e.getMessage());
+            System.out.println("Error replaying journal: " + e.getMessage());
+            return;
+        }
+        teamManager.setJournal(journal);
+        playerManager.setJournal(journal);
+
+        SourceWatcher watcher = null;
+        if (watch) {
+            watcher = new SourceWatcher(teamManager, playerManager, gameManager, TEAMS_CSV, PLAYERS_CSV, GAMES_CSV);
+            try {
+                watcher.start();
+                System.out.println("Watching " + TEAMS_CSV + ", " + PLAYERS_CSV + " and " + GAMES_CSV + " for changes");
+            } catch (IOException e) {
+                System.out.println("Could not watch data files: " + e.getMessage());
+                watcher = null;
+            }
+        }
+
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args, journal, watcher, teamManager, playerManager, gameManager);
             return;
         }
 
@@ -47,18 +166,271 @@ public class NFLManagementSystem {
             scanner.nextLine(); // Consume newline
 
             switch (choice) {
-                case 1 -> teamManager.displayTeams();
-                case 2 -> playerManager.displayPlayers();
-                case 3 -> gameManager.displayGames();
-                case 4 -> addTeam(scanner, teamManager);
-                case 5 -> addPlayer(scanner, teamManager,playerManager);
+                case 1 -> displayPaged(scanner, teamManager.getTeams().size(), teamManager::displayTeams);
+                case 2 -> displayPaged(scanner, playerManager.getPlayers().size(), playerManager::displayPlayers);
+                case 3 -> displayPaged(scanner, gameManager.getGames().size(), gameManager::displayGames);
+                case 4 -> {
+                    addTeam(scanner, teamManager);
+                    compactIfLarge(journal, teamManager, playerManager, gameManager);
+                }
+                case 5 -> {
+                    if (partial) {
+                        System.out.println("Players cannot be added while only some teams are loaded.");
+                    } else {
+                        addPlayer(scanner, teamManager,playerManager);
+                        compactIfLarge(journal, teamManager, playerManager, gameManager);
+                    }
+                }
                 case 6 -> findTeam(scanner, teamManager);
-                case 7 -> System.out.println("Exiting the program by Letshu Phinees Abel...");
+                case 7 -> search(scanner, teamManager, playerManager);
+                case 8 -> showRosterStats(teamManager);
+                case 9 -> showMetrics();
+                case 10 -> System.out.println("Exiting the program by Letshu Phinees Abel...");
                 default -> System.out.println("***Invalid choice. Try again.***");
             }
-        } while (choice != 7);
+        } while (choice != 10);
 
         scanner.close();
+        stopWatching(watcher);
+        checkpoint(journal, teamManager, playerManager, gameManager);
+        closeJournal(journal);
+    }
+
+    /**
+     * Starts the query server. It runs until the process is stopped, then saves a snapshot.
+     * While it runs the journal is checked periodically and compacted once it grows large.
+     *
+     * @param args          command-line arguments, optionally holding the port after {@code --serve}
+     * @param journal       the journal recording changes made through the server
+     * @param watcher       the running data file watcher, or null
+     * @param teamManager   TeamManager instance to serve
+     * @param playerManager PlayerManager instance to serve
+     * @param gameManager   GameManager instance to serve
+     */
+    private static void serve(String[] args, Journal journal, SourceWatcher watcher, TeamManager teamManager,
+                              PlayerManager playerManager, GameManager gameManager) {
+        QueryServer server = new QueryServer(teamManager, playerManager, gameManager);
+        try {
+            server.start(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid port: " + args[1]);
+            return;
+        } catch (IOException e) {
+            System.out.println("Could not start server: " + e.getMessage());
+            return;
+        }
+        ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> compactIfLarge(journal, teamManager, playerManager, gameManager),
+                30, 30, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            compactor.shutdown();
+            stopWatching(watcher);
+            checkpoint(journal, teamManager, playerManager, gameManager);
+            closeJournal(journal);
+        }));
+        System.out.println("Serving on http://localhost:" + server.getPort() + "/ (Ctrl+C to stop)");
+    }
+
+    /**
+     * Saves all data to the binary snapshot so the next start can skip CSV parsing, and to the partitioned
+     * store for sessions that load only some teams, then moves the journal records the snapshot now holds to
+     * the delta file. Changes are applied before they are journaled, so every record already in the journal
+     * when the snapshot starts is part of it; later records are kept. A start that finds the snapshot older than
+     * the CSV files loads them instead and replays the delta file, so no change is lost.
+     *
+     * @param journal       the journal to compact
+     * @param teamManager   TeamManager instance to save teams from
+     * @param playerManager PlayerManager instance to save players from
+     * @param gameManager   GameManager instance to save games from
+     */
+    private static synchronized void checkpoint(Journal journal, TeamManager teamManager, PlayerManager playerManager,
+                                                GameManager gameManager) {
+        if (partial) return;
+        try {
+            long covered = journal.size();
+            Snapshot.save(SNAPSHOT, teamManager, playerManager, gameManager);
+            Partitions.save(PARTITIONS, teamManager, playerManager, gameManager);
+            journal.compact(covered, DELTA);
+        } catch (IOException e) {
+            System.out.println("Could not save snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checkpoints once the journal has grown past {@link #COMPACT_THRESHOLD}.
+     *
+     * @param journal       the journal to check
+     * @param teamManager   TeamManager instance to save teams from
+     * @param playerManager PlayerManager instance to save players from
+     * @param gameManager   GameManager instance to save games from
+     */
+    private static void compactIfLarge(Journal journal, TeamManager teamManager, PlayerManager playerManager,
+                                       GameManager gameManager) {
+        try {
+            if (journal.size() > COMPACT_THRESHOLD) {
+                checkpoint(journal, teamManager, playerManager, gameManager);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not check journal: " + e.getMessage());
+        }
+    }
+
+    private static void stopWatching(SourceWatcher watcher) {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            System.out.println("Could not stop watching data files: " + e.getMessage());
+        }
+    }
+
+    private static void closeJournal(Journal journal) {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Could not close journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies one journal record at startup. Replaying a record that the snapshot already holds changes
+     * nothing, so records left over from an interrupted checkpoint are harmless.
+     * When only some teams are loaded, other teams are not added, and a player put on or moved to a team
+     * that is not loaded is removed instead.
+     *
+     * @param type          the record type
+     * @param fields        the record fields
+     * @param selected      the symbol keys of the loaded teams' names, or null if all teams are loaded
+     * @param teamManager   TeamManager instance to apply team changes to
+     * @param playerManager PlayerManager instance to apply player changes to
+     * @throws Exception if the record is malformed
+     */
+    private static void replay(byte type, String[] fields, Set<Integer> selected, TeamManager teamManager,
+                               PlayerManager playerManager) throws Exception {
+        switch (type) {
+            case Journal.ADD_TEAM -> {
+                boolean wanted = selected == null || selected.contains(SymbolTable.shared().keyId(fields[0]));
+                // Returns null without adding anything if the team exists
+                if (wanted) teamManager.createTeam(fields[0], fields[1], fields[2], Integer.parseInt(fields[3]));
+            }
+            case Journal.PUT_PLAYER -> {
+                if (selected != null && !teamManager.hasTeam(fields[3])) {
+                    playerManager.removePlayer(fields[0], teamManager);
+                } else {
+                    playerManager.putPlayer(new Player(fields[0], fields[1], Integer.parseInt(fields[2]), fields[3],
+                            fields[4]), teamManager);
+                }
+            }
+            case Journal.MOVE_PLAYER -> {
+                if (selected != null && !teamManager.hasTeam(fields[1])) {
+                    playerManager.removePlayer(fields[0], teamManager);
+                } else {
+                    playerManager.movePlayer(fields[0], fields[1], teamManager);
+                }
+            }
+            case Journal.REMOVE_PLAYER -> playerManager.removePlayer(fields[0], teamManager);
+            default -> throw new Exception("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Loads only the named teams, with their players and games, from the partitioned store.
+     * Checkpoints are turned off for the session, since they would save only these teams.
+     *
+     * @param teamNames     the names of the teams to load
+     * @param teamManager   TeamManager instance to load teams into
+     * @param playerManager PlayerManager instance to load players into
+     * @param gameManager   GameManager instance to load games into
+     * @return true if the teams were loaded; false if the program should stop
+     */
+    private static boolean loadPartitions(List<String> teamNames, TeamManager teamManager, PlayerManager playerManager,
+                                          GameManager gameManager) {
+        if (!Partitions.isFresh(PARTITIONS, Path.of(TEAMS_CSV), Path.of(PLAYERS_CSV), Path.of(GAMES_CSV))) {
+            System.out.println("The partitioned store is missing or older than the CSV files; "
+                    + "start once without --teams and exit to rebuild it.");
+            return false;
+        }
+        long start = System.nanoTime();
+        int loaded;
+        try {
+            loaded = Partitions.load(PARTITIONS, teamNames, teamManager, playerManager, gameManager);
+        } catch (IOException e) {
+            System.out.println("Error loading partitions: " + e.getMessage());
+            return false;
+        }
+        partial = true;
+        System.out.printf("Loaded %d of %d requested teams in %.1f ms%n", loaded, teamNames.size(),
+                (System.nanoTime() - start) / 1_000_000.0);
+        return true;
+    }
+
+    private static Set<Integer> selectedKeys(List<String> teamNames) {
+        if (teamNames == null) return null;
+        Set<Integer> keys = new HashSet<>();
+        for (String name : teamNames) {
+            keys.add(SymbolTable.shared().keyId(name));
+        }
+        return keys;
+    }
+
+    /**
+     * Restores all data from the binary snapshot if it is newer than every CSV file.
+     * Games can be opened lazily from their CSV file instead, which holds the same games as a fresh snapshot.
+     *
+     * @param teamManager   TeamManager instance to restore teams into
+     * @param playerManager PlayerManager instance to restore players into
+     * @param gameManager   GameManager instance to restore games into
+     * @param lazyGames     whether to open the games CSV file lazily rather than restore games
+     * @return true if the snapshot was loaded; false if the CSV files should be loaded instead
+     * @throws Exception if the snapshot was loaded but the games file could not be opened
+     */
+    private static boolean loadSnapshot(TeamManager teamManager, PlayerManager playerManager, GameManager gameManager,
+                                        boolean lazyGames) throws Exception {
+        if (!Snapshot.isFresh(SNAPSHOT, Path.of(TEAMS_CSV), Path.of(PLAYERS_CSV), Path.of(GAMES_CSV))) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            Snapshot.load(SNAPSHOT, teamManager, playerManager, lazyGames ? null : gameManager);
+        } catch (IOException e) {
+            System.out.println("Ignoring snapshot: " + e.getMessage());
+            return false;
+        }
+        // Opened only once the snapshot is in, since a compressed file is loaded in full and a CSV load would repeat it
+        if (lazyGames) gameManager.openGames(GAMES_CSV);
+        System.out.printf("Loaded snapshot in %.1f ms%n", (System.nanoTime() - start) / 1_000_000.0);
+        return true;
+    }
+
+    /**
+     * Displays a table one page at a time, asking before each further page.
+     * When output is redirected to a file or pipe the whole table is streamed without prompts.
+     *
+     * @param scanner Scanner object to read user input
+     * @param total   the number of rows in the table
+     * @param page    writes a page of the table
+     */
+    private static void displayPaged(Scanner scanner, int total, TablePage page) {
+        Writer out = TableWriter.standardOut();
+        try {
+            if (System.console() == null) {
+                page.write(out, 0, Integer.MAX_VALUE);
+                return;
+            }
+            int first = 0;
+            do {
+                first += page.write(out, first, PAGE_SIZE);
+                if (first >= total) break;
+                System.out.printf("Showing %d of %d. Press Enter for more, or q to stop: ", first, total);
+            } while (!scanner.nextLine().trim().equalsIgnoreCase("q"));
+        } catch (IOException e) {
+            System.out.println("Error displaying table: " + e.getMessage());
+        }
     }
 
     /**
@@ -72,10 +444,40 @@ public class NFLManagementSystem {
         System.out.println("4. Add Team");
         System.out.println("5. Add Player to Team");
         System.out.println("6. Find Team");
-        System.out.println("7. Exit");
+        System.out.println("7. Search Teams and Players");
+        System.out.println("8. Roster Summary");
+        System.out.println("9. Show Metrics");
+        System.out.println("10. Exit");
         System.out.print("Enter choice: ");
     }
 
+    /**
+     * Displays each team's roster statistics and the league's totals.
+     *
+     * @param teamManager TeamManager instance holding the teams
+     */
+    private static void showRosterStats(TeamManager teamManager) {
+        try {
+            teamManager.displayRosterStats(TableWriter.standardOut());
+        } catch (IOException e) {
+            System.out.println("Could not display roster summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Displays the load, lookup and display metrics collected so far and saves them as JSON,
+     * so runs can be compared.
+     */
+    private static void showMetrics() {
+        try {
+            Metrics.shared().display(TableWriter.standardOut());
+            Files.writeString(METRICS, Metrics.shared().toJson());
+            System.out.println("Metrics saved to " + METRICS);
+        } catch (IOException e) {
+            System.out.println("Could not save metrics: " + e.getMessage());
+        }
+    }
+
     /**
      * Adds a new team based on user input.
      *
@@ -92,7 +494,11 @@ public class NFLManagementSystem {
         System.out.print("Enter coach years of experience: ");
         int yearsOfExperience = getValidInt(scanner);
 
-        teamManager.addTeam(teamName, city, coachName, yearsOfExperience);
+        try {
+            teamManager.addTeam(teamName, city, coachName, yearsOfExperience);
+        } catch (UncheckedIOException e) {
+            System.out.println("Team added but not saved: " + e.getCause().getMessage());
+        }
     }
 
     /**
@@ -113,18 +519,18 @@ public class NFLManagementSystem {
         System.out.print("Enter player position: ");
         String position = scanner.nextLine();
 
-        Team team = teamManager.findTeam(playerTeamName);
-
-
-        if (team != null) {
-            Player newPlayer = new Player(playerId,playerName,age,playerTeamName,position);
-            team.addPlayer(newPlayer);           // Adds to the team
-            playerManager.getPlayers().add(newPlayer); // Adds to the display list
-
-
-            System.out.println("Player added successfully!");
-        } else {
-            System.out.println("Team not found. Player not added.");
+        Player newPlayer = new Player(playerId,playerName,age,playerTeamName,position);
+        // Adds to the team and to the display list together
+        try {
+            if (playerManager.addPlayer(newPlayer, teamManager) != null) {
+                System.out.println("Player added successfully!");
+            } else {
+                System.out.println("Team not found. Player not added.");
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("Player ID already exists. Player not added.");
+        } catch (UncheckedIOException e) {
+            System.out.println("Player added but not saved: " + e.getCause().getMessage());
         }
     }
 
@@ -145,6 +551,30 @@ public class NFLManagementSystem {
         }
     }
 
+    /**
+     * Searches team names, cities, coaches and player names based on user input and lists the best matches.
+     *
+     * @param scanner       Scanner object to read user input
+     * @param teamManager   TeamManager instance to search teams
+     * @param playerManager PlayerManager instance to search players
+     */
+    private static void search(Scanner scanner, TeamManager teamManager, PlayerManager playerManager) {
+        System.out.print("Enter a name, city or coach to search for: ");
+        String query = scanner.nextLine();
+        List<Team> teams = teamManager.searchTeams(query, SEARCH_RESULTS);
+        List<Player> players = playerManager.searchPlayers(query, SEARCH_RESULTS);
+        if (teams.isEmpty() && players.isEmpty()) {
+            System.out.println("No matches found.");
+            return;
+        }
+        for (Team team : teams) {
+            System.out.println("Team: " + team);
+        }
+        for (Player player : players) {
+            System.out.println("Player: " + player);
+        }
+    }
+
     /**
      * Retrieves a valid integer from the user.
      *
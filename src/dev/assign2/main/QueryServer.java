@@ -0,0 +1,408 @@
+/**
+ * An optional HTTP interface to the managers, answering team, roster, player, game and standings
+ * queries with JSON and accepting new teams and players.
+ * Built on the JDK's HTTP server with one virtual thread per exchange, so thousands of concurrent
+ * clients cost no more than their sockets; the managers are read through their lock-free snapshots.
+ * The server only listens on the loopback interface.
+ *
+ * <pre>
+ * GET  /teams[?name=|city=|coach=]           GET  /games[?team=|location=|from=&amp;to=]
+ * POST /teams  name, city, coach, experience  GET  /standings
+ * GET  /roster?name=                          GET  /players[?id=|minAge=&amp;maxAge=]
+ * GET  /metrics                               POST /players  id, name, age, team, position
+ * GET  /search?q=[&amp;limit=]                   GET  /rosterStats[?name=]
+ * </pre>
+ * Parameters are read from the query string and, for POST, from a form-encoded body.
+ */
+package dev.assign2.main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.assign2.io.JsonWriter;
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.TeamManager;
+import dev.assign2.models.Game;
+import dev.assign2.models.Player;
+import dev.assign2.models.RosterStats;
+import dev.assign2.models.Team;
+import dev.assign2.models.TeamRecord;
+import dev.assign2.util.Metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class QueryServer {
+
+    // Pending connections the OS may queue while all accept slots are busy
+    private static final int BACKLOG = 4096;
+    private static final int MAX_BODY = 1 << 16;
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 1000;
+
+    private final TeamManager teamManager;
+    private final PlayerManager playerManager;
+    private final GameManager gameManager;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Handles one request to a path.
+     */
+    @FunctionalInterface
+    private interface Route {
+        Response handle(String method, Map<String, String> params);
+    }
+
+    /**
+     * An HTTP status and JSON body.
+     */
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Constructs a server over existing managers.
+     *
+     * @param teamManager   TeamManager instance to query and add teams to
+     * @param playerManager PlayerManager instance to query and add players to
+     * @param gameManager   GameManager instance to query
+     */
+    public QueryServer(TeamManager teamManager, PlayerManager playerManager, GameManager gameManager) {
+        this.teamManager = teamManager;
+        this.playerManager = playerManager;
+        this.gameManager = gameManager;
+    }
+
+    /**
+     * Starts listening on a loopback port.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        route("/teams", this::teams);
+        route("/roster", this::roster);
+        route("/players", this::players);
+        route("/games", this::games);
+        route("/standings", this::standings);
+        route("/search", this::search);
+        route("/rosterStats", this::rosterStats);
+        route("/metrics", (method, params) -> method.equals("POST")
+                ? error(405, "Method not allowed") : new Response(200, Metrics.shared().toJson()));
+        route("/", (method, params) -> error(404, "Not found"));
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits for the ones in progress to finish.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void route(String path, Route route) {
+        server.createContext(path, exchange -> {
+            try {
+                handle(exchange, path, route);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    private void handle(HttpExchange exchange, String path, Route route) throws IOException {
+        Response response;
+        String method = exchange.getRequestMethod();
+        if (!exchange.getRequestURI().getPath().equals(path)) {
+            response = error(404, "Not found");
+        } else if (!method.equals("GET") && !method.equals("POST")) {
+            response = error(405, "Method not allowed");
+        } else {
+            try {
+                response = route.handle(method, parameters(exchange));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                response = error(400, e.getMessage());
+            } catch (RuntimeException e) {
+                response = error(500, "Internal error");
+            }
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Response teams(String method, Map<String, String> params) {
+        if (method.equals("POST")) {
+            String name = required(params, "name");
+            Team team = teamManager.createTeam(name, required(params, "city"), required(params, "coach"),
+                    number(params, "experience", 0));
+            if (team == null) return error(409, "Team already exists: " + name);
+            return new Response(201, team(new JsonWriter(256), team).toString());
+        }
+        if (params.containsKey("name")) {
+            Team team = teamManager.findTeam(params.get("name"));
+            return team != null ? ok(team(new JsonWriter(256), team)) : error(404, "Team not found");
+        }
+        List<Team> teams;
+        if (params.containsKey("city")) {
+            teams = teamManager.findTeamsByCity(params.get("city"));
+        } else if (params.containsKey("coach")) {
+            teams = teamManager.findTeamsByCoach(params.get("coach"));
+        } else {
+            teams = teamManager.getTeams();
+        }
+        JsonWriter json = new JsonWriter(128 * teams.size() + 2).beginArray();
+        for (Team team : teams) {
+            team(json, team);
+        }
+        return ok(json.endArray());
+    }
+
+    private Response roster(String method, Map<String, String> params) {
+        if (method.equals("POST")) return error(405, "Method not allowed");
+        Team team = teamManager.findTeam(required(params, "name"));
+        return team != null ? ok(players(team.getPlayers())) : error(404, "Team not found");
+    }
+
+    private Response players(String method, Map<String, String> params) {
+        if (method.equals("POST")) {
+            Player player = new Player(required(params, "id"), required(params, "name"), number(params, "age", 0),
+                    required(params, "team"), required(params, "position"));
+            Player stored;
+            try {
+                stored = playerManager.addPlayer(player, teamManager);
+            } catch (IllegalStateException e) {
+                return error(409, e.getMessage());
+            }
+            if (stored == null) return error(404, "Team not found");
+            return new Response(201, player(new JsonWriter(128), stored).toString());
+        }
+        if (params.containsKey("id")) {
+            Player player = playerManager.findPlayer(params.get("id"));
+            return player != null ? ok(player(new JsonWriter(128), player)) : error(404, "Player not found");
+        }
+        if (params.containsKey("minAge") || params.containsKey("maxAge")) {
+            return ok(players(playerManager.findPlayersByAge(number(params, "minAge", 0),
+                    number(params, "maxAge", Integer.MAX_VALUE))));
+        }
+        return ok(players(playerManager.getPlayers()));
+    }
+
+    private Response games(String method, Map<String, String> params) {
+        if (method.equals("POST")) return error(405, "Method not allowed");
+        List<Game> games;
+        if (params.containsKey("team")) {
+            games = gameManager.findGamesByTeam(params.get("team"));
+        } else if (params.containsKey("location")) {
+            games = gameManager.findGamesByLocation(params.get("location"));
+        } else if (params.containsKey("from") || params.containsKey("to")) {
+            games = gameManager.findGamesBetween(LocalDate.parse(required(params, "from")),
+                    LocalDate.parse(required(params, "to")));
+        } else {
+            games = gameManager.getGames();
+        }
+        JsonWriter json = new JsonWriter(128 * games.size() + 2).beginArray();
+        for (Game game : games) {
+            json.beginObject()
+                    .name("team1").value(game.getTeam1())
+                    .name("team2").value(game.getTeam2())
+                    .name("date").value(game.getDate())
+                    .name("location").value(game.getLocation());
+            if (game.hasScore()) {
+                json.name("score1").value(game.getScore1()).name("score2").value(game.getScore2());
+            }
+            json.endObject();
+        }
+        return ok(json.endArray());
+    }
+
+    private Response standings(String method, Map<String, String> params) {
+        if (method.equals("POST")) return error(405, "Method not allowed");
+        List<TeamRecord> records = gameManager.getStandings();
+        JsonWriter json = new JsonWriter(128 * records.size() + 2).beginArray();
+        for (TeamRecord record : records) {
+            json.beginObject()
+                    .name("team").value(record.getTeamName())
+                    .name("wins").value(record.getWins())
+                    .name("losses").value(record.getLosses())
+                    .name("ties").value(record.getTies())
+                    .name("pointsFor").value(record.getPointsFor())
+                    .name("pointsAgainst").value(record.getPointsAgainst())
+                    .name("winPercentage").value(record.getWinPercentage())
+                    .endObject();
+        }
+        return ok(json.endArray());
+    }
+
+    private Response search(String method, Map<String, String> params) {
+        if (method.equals("POST")) return error(405, "Method not allowed");
+        String query = required(params, "q");
+        int limit = number(params, "limit", DEFAULT_LIMIT);
+        if (limit < 1 || limit > MAX_LIMIT) throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        List<Team> teams = teamManager.searchTeams(query, limit);
+        List<Player> players = playerManager.searchPlayers(query, limit);
+        JsonWriter json = new JsonWriter(128 * (teams.size() + players.size()) + 32).beginObject();
+        json.name("teams").beginArray();
+        for (Team team : teams) {
+            team(json, team);
+        }
+        json.endArray().name("players").beginArray();
+        for (Player player : players) {
+            player(json, player);
+        }
+        return ok(json.endArray().endObject());
+    }
+
+    private Response rosterStats(String method, Map<String, String> params) {
+        if (method.equals("POST")) return error(405, "Method not allowed");
+        if (params.containsKey("name")) {
+            RosterStats stats = teamManager.getRosterStats(params.get("name"));
+            return stats != null ? ok(rosterStats(new JsonWriter(512), stats)) : error(404, "Team not found");
+        }
+        List<Team> teams = teamManager.getTeams();
+        JsonWriter json = new JsonWriter(512 * (teams.size() + 1) + 32).beginObject();
+        json.name("league");
+        rosterStats(json, teamManager.getLeagueRosterStats());
+        json.name("teams").beginArray();
+        for (Team team : teams) {
+            json.beginObject().name("team").value(team.getTeamName()).name("stats");
+            rosterStats(json, team.getRosterStats()).endObject();
+        }
+        return ok(json.endArray().endObject());
+    }
+
+    private static JsonWriter rosterStats(JsonWriter json, RosterStats stats) {
+        json.beginObject()
+                .name("players").value(stats.getPlayerCount())
+                .name("averageAge").value(stats.getAverageAge())
+                .name("minAge").value(stats.getMinAge())
+                .name("maxAge").value(stats.getMaxAge())
+                .name("ages").beginObject();
+        for (Map.Entry<Integer, Integer> entry : stats.getAgeCounts().entrySet()) {
+            json.name(entry.getKey().toString()).value(entry.getValue());
+        }
+        json.endObject().name("positions").beginObject();
+        for (Map.Entry<String, Integer> entry : stats.getPositionCounts().entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        return json.endObject().endObject();
+    }
+
+    private static JsonWriter team(JsonWriter json, Team team) {
+        return json.beginObject()
+                .name("name").value(team.getTeamName())
+                .name("city").value(team.getCity())
+                .name("coach").beginObject()
+                .name("id").value(team.getCoach().getCoachId())
+                .name("name").value(team.getCoach().getName())
+                .name("experience").value(team.getCoach().getYearsOfExperience())
+                .endObject()
+                .name("players").value(team.getPlayerCount())
+                .endObject();
+    }
+
+    private static JsonWriter players(List<Player> players) {
+        JsonWriter json = new JsonWriter(96 * players.size() + 2).beginArray();
+        for (Player player : players) {
+            player(json, player);
+        }
+        return json.endArray();
+    }
+
+    private static JsonWriter player(JsonWriter json, Player player) {
+        return json.beginObject()
+                .name("id").value(player.getPlayerId())
+                .name("name").value(player.getName())
+                .name("age").value(player.getAge())
+                .name("team").value(player.getTeamName())
+                .name("position").value(player.getPosition())
+                .endObject();
+    }
+
+    private static Response ok(JsonWriter json) {
+        return new Response(200, json.toString());
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, new JsonWriter(64).beginObject().name("error").value(message).endObject().toString());
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Missing parameter: " + name);
+        return value.trim();
+    }
+
+    private static int number(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Collects the query string parameters and, for POST, the form-encoded body parameters.
+     */
+    private static Map<String, String> parameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] body = in.readNBytes(MAX_BODY + 1);
+                if (body.length > MAX_BODY) throw new IllegalArgumentException("Request body too large");
+                parseForm(new String(body, StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) return;
+        for (String pair : form.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+}
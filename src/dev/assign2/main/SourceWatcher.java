@@ -0,0 +1,431 @@
+/**
+ * Watches the team, player and game CSV files and applies their changes to the running managers.
+ * When a file has only grown, which a hash of all the bytes read before confirms, just the appended complete
+ * lines are read and applied. Otherwise the file is read again and compared with the rows seen before, keyed
+ * by team name, player ID and teams plus date of a game, so only added, changed and removed rows touch the managers.
+ * Queries keep running against the managers throughout; nothing is reloaded from scratch.
+ * A gzip-compressed file is always read again in full, decompressed, since appends cannot be told apart.
+ *
+ * <p>Players are upserted and removed. Teams and games can only be added, and a game's score updated,
+ * because the managers have no way to change or remove them; such rows are reported as skipped.
+ * Changes read from the files are not journaled: the files hold them, and a later start that finds the files
+ * newer than the snapshot reads them again.
+ */
+package dev.assign2.main;
+
+import dev.assign2.io.CsvReader;
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.PlayerStore;
+import dev.assign2.managers.TeamManager;
+import dev.assign2.models.Game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public final class SourceWatcher implements Closeable {
+
+    // Time to let a writer finish before reading, so one save is applied once
+    private static final long SETTLE_MILLIS = 200;
+    // Block size for hashing the part of a file read before
+    private static final int HASH_BLOCK = 1 << 16;
+    private static final char SEPARATOR = '\u001f';
+
+    private final TeamManager teamManager;
+    private final PlayerManager playerManager;
+    private final GameManager gameManager;
+    // In dependency order: players need their teams, which may arrive in the same change
+    private final List<Source> sources = new ArrayList<>();
+    private final Map<Path, Source> sourcesByPath = new HashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    private enum Kind { TEAMS, PLAYERS, GAMES }
+
+    /**
+     * What is known about one watched file: how far it has been read, a hash of every byte before that point,
+     * and the rows read so far by key.
+     */
+    private static final class Source {
+        private final Kind kind;
+        private final Path path;
+        private long offset;
+        // Running digest of the bytes before offset, and its value
+        private MessageDigest prefix = sha256();
+        private byte[] prefixHash = prefix.digest();
+        private Map<String, String> rows = new HashMap<>();
+
+        Source(Kind kind, Path path) {
+            this.kind = kind;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Constructs a watcher over loaded managers and the files they were loaded from.
+     *
+     * @param teamManager   TeamManager instance to apply team changes to
+     * @param playerManager PlayerManager instance to apply player changes to
+     * @param gameManager   GameManager instance to apply game changes to
+     * @param teamsCsv      the path to the teams CSV file
+     * @param playersCsv    the path to the players CSV file
+     * @param gamesCsv      the path to the games CSV file
+     */
+    public SourceWatcher(TeamManager teamManager, PlayerManager playerManager, GameManager gameManager,
+                         String teamsCsv, String playersCsv, String gamesCsv) {
+        this.teamManager = teamManager;
+        this.playerManager = playerManager;
+        this.gameManager = gameManager;
+        source(Kind.TEAMS, teamsCsv);
+        source(Kind.PLAYERS, playersCsv);
+        source(Kind.GAMES, gamesCsv);
+    }
+
+    /**
+     * Reads the current contents of the files as the baseline the managers already hold,
+     * then starts watching them on a daemon thread.
+     *
+     * @throws IOException if a file cannot be read or its directory cannot be watched
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        for (Source source : sources) {
+            if (Files.exists(source.path)) {
+                try {
+                    rescan(source);
+                } catch (Exception e) {
+                    throw new IOException("Could not read " + source.path.getFileName() + ": " + e.getMessage(), e);
+                }
+            }
+            if (directories.add(source.path.getParent())) {
+                source.path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+        thread = new Thread(this::run, "source-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching. Changes already being applied are finished first.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void source(Kind kind, String csvFilePath) {
+        Source source = new Source(kind, Path.of(csvFilePath).toAbsolutePath().normalize());
+        sources.add(source);
+        sourcesByPath.put(source.path, source);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Thread.sleep(SETTLE_MILLIS);
+                Set<Source> changed = new HashSet<>();
+                do {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path name) {
+                            Source source = sourcesByPath.get(directory.resolve(name));
+                            if (source != null) changed.add(source);
+                        }
+                    }
+                    key.reset();
+                } while ((key = watchService.poll()) != null);
+                for (Source source : sources) {
+                    if (changed.contains(source)) refresh(source);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed; stop watching
+        }
+    }
+
+    /**
+     * Applies whatever changed in a file since it was last read and reports it on standard output.
+     */
+    private void refresh(Source source) {
+        String name = source.path.getFileName().toString();
+        try {
+            if (!Files.exists(source.path)) return;
+            Changes changes = appended(source);
+            String how = "appended";
+            if (changes == null) {
+                changes = rescan(source);
+                how = "rewritten";
+            }
+            if (changes.isEmpty()) return;
+            apply(source.kind, changes);
+            System.out.println("Reloaded " + name + " (" + how + "): " + changes.applied + " rows applied, "
+                    + changes.skipped + " skipped");
+        } catch (Exception e) {
+            System.out.println("Could not reload " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rows added or changed and keys removed by one change to a file.
+     */
+    private static final class Changes {
+        private final List<String[]> upserts = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private int applied;
+        private int skipped;
+
+        boolean isEmpty() {
+            return upserts.isEmpty() && removed.isEmpty() && skipped == 0;
+        }
+    }
+
+    /**
+     * Reads the complete lines added after the last read offset, or returns null if the file was not
+     * simply appended to: it must have grown, and every byte read before must hash the same as it did then.
+     * A trailing line without its line break is left for the next change.
+     */
+    private Changes appended(Source source) throws Exception {
+        if (CsvReader.isCompressed(source.path)) return null;
+        try (FileChannel channel = FileChannel.open(source.path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= source.offset) return null;
+            if (!Arrays.equals(hashPrefix(channel, source.offset), source.prefixHash)) return null;
+
+            ByteBuffer added = ByteBuffer.allocate(Math.toIntExact(size - source.offset));
+            while (added.hasRemaining() && channel.read(added, source.offset + added.position()) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            int end = added.position();
+            while (end > 0 && added.get(end - 1) != '\n') end--;
+            Changes changes = new Changes();
+            if (end == 0) return changes;
+            added.flip().limit(end);
+            CsvReader.read(added.duplicate(), row -> {
+                String[] fields = fields(row);
+                String key = key(source.kind, fields);
+                if (key == null) {
+                    changes.skipped++;
+                    return;
+                }
+                String line = line(fields);
+                if (!line.equals(source.rows.put(key, line))) changes.upserts.add(fields);
+            });
+            advance(source, added.array(), end, source.offset + end);
+            return changes;
+        }
+    }
+
+    /**
+     * Reads the whole file and compares it with the rows read before.
+     */
+    private Changes rescan(Source source) throws Exception {
+        byte[] bytes;
+        try (ReadableByteChannel channel = CsvReader.open(source.path)) {
+            bytes = Channels.newInputStream(channel).readAllBytes();
+        }
+        Map<String, String> rows = new LinkedHashMap<>(source.rows.size() * 4 / 3 + 16);
+        Changes changes = new Changes();
+        CsvReader.read(ByteBuffer.wrap(bytes), row -> {
+            String[] fields = fields(row);
+            String key = key(source.kind, fields);
+            if (key == null) {
+                changes.skipped++;
+                return;
+            }
+            String line = line(fields);
+            rows.put(key, line);
+            if (!line.equals(source.rows.get(key))) changes.upserts.add(fields);
+        });
+        for (String key : source.rows.keySet()) {
+            if (!rows.containsKey(key)) changes.removed.add(key);
+        }
+        source.rows = rows;
+        advance(source, bytes, bytes.length, bytes.length);
+        return changes;
+    }
+
+    /**
+     * Moves the read offset forward and adds the bytes just read to the hash of everything before it.
+     */
+    private static void advance(Source source, byte[] read, int end, long offset) {
+        // A read from the start of the file replaces the hash instead of extending it
+        if (offset == end) source.prefix = sha256();
+        source.prefix.update(read, 0, end);
+        try {
+            source.prefixHash = ((MessageDigest) source.prefix.clone()).digest();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        source.offset = offset;
+    }
+
+    /**
+     * Hashes the first bytes of a file the same way as {@link #advance}.
+     */
+    private static byte[] hashPrefix(FileChannel channel, long length) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer block = ByteBuffer.allocate(HASH_BLOCK);
+        long position = 0;
+        while (position < length) {
+            block.clear().limit((int) Math.min(HASH_BLOCK, length - position));
+            int read = channel.read(block, position);
+            if (read < 0) throw new IOException("File shrank while it was read");
+            digest.update(block.array(), 0, read);
+            position += read;
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String line(String[] fields) {
+        return String.join(String.valueOf(SEPARATOR), fields);
+    }
+
+    private static String[] fields(CsvReader.Row row) {
+        String[] fields = new String[row.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = row.getString(i).trim();
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the identity of a row, or null if the row has the wrong number of columns or a blank key.
+     */
+    private static String key(Kind kind, String[] fields) {
+        switch (kind) {
+            case TEAMS -> {
+                if ((fields.length != 3 && fields.length != 4) || fields[0].isEmpty()) return null;
+                return fields[0].toLowerCase(Locale.ROOT);
+            }
+            case PLAYERS -> {
+                if (fields.length != 5 || fields[0].isEmpty()) return null;
+                return fields[0];
+            }
+            default -> {
+                if (fields.length != 5 || fields[2].isEmpty()) return null;
+                return fields[0].toLowerCase(Locale.ROOT) + SEPARATOR + fields[1].toLowerCase(Locale.ROOT)
+                        + SEPARATOR + fields[2];
+            }
+        }
+    }
+
+    private void apply(Kind kind, Changes changes) {
+        switch (kind) {
+            case TEAMS -> applyTeams(changes);
+            case PLAYERS -> applyPlayers(changes);
+            case GAMES -> applyGames(changes);
+        }
+    }
+
+    private void applyTeams(Changes changes) {
+        for (String[] fields : changes.upserts) {
+            try {
+                int yearsOfExperience = fields.length > 3 ? Integer.parseInt(fields[3]) : 0;
+                if (teamManager.addLoadedTeam(fields[0], fields[1], fields[2], yearsOfExperience) == null) {
+                    changes.skipped++;
+                    continue;
+                }
+                changes.applied++;
+            } catch (NumberFormatException e) {
+                changes.skipped++;
+            }
+        }
+        changes.skipped += changes.removed.size();
+        changes.removed.clear();
+    }
+
+    private void applyPlayers(Changes changes) {
+        PlayerStore batch = new PlayerStore();
+        for (String[] fields : changes.upserts) {
+            try {
+                batch.add(fields[0], fields[1], Integer.parseInt(fields[2]), fields[3], fields[4]);
+            } catch (NumberFormatException e) {
+                changes.skipped++;
+            }
+        }
+        if (batch.size() > 0) playerManager.addLoadedPlayers(batch, teamManager);
+        changes.applied += batch.size();
+        for (String playerId : changes.removed) {
+            if (playerManager.removeLoadedPlayer(playerId, teamManager)) changes.applied++;
+        }
+    }
+
+    private void applyGames(Changes changes) {
+        for (String[] fields : changes.upserts) {
+            Game game;
+            try {
+                game = new Game(fields[0], fields[1], fields[2], fields[3], fields[4]);
+            } catch (DateTimeException | NumberFormatException e) {
+                changes.skipped++;
+                continue;
+            }
+            Game existing = null;
+            for (Game candidate : gameManager.findGamesByTeam(game.getTeam1())) {
+                if (candidate.getEpochDay() == game.getEpochDay()
+                        && candidate.getTeam1().equalsIgnoreCase(game.getTeam1())
+                        && candidate.getTeam2().equalsIgnoreCase(game.getTeam2())) {
+                    existing = candidate;
+                    break;
+                }
+            }
+            if (existing == null) {
+                gameManager.addGame(game);
+                changes.applied++;
+            } else if (existing.getScore1() != game.getScore1() || existing.getScore2() != game.getScore2()) {
+                gameManager.updateScore(existing, game.getScore1(), game.getScore2());
+                changes.applied++;
+            } else {
+                // Only the location changed, which a loaded game cannot take
+                changes.skipped++;
+            }
+        }
+        changes.skipped += changes.removed.size();
+        changes.removed.clear();
+    }
+}
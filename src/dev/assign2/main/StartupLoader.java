@@ -0,0 +1,182 @@
+/**
+ * Loads teams, players and games concurrently at startup.
+ * Games are loaded alongside the teams and players chain, and players are parsed while teams load.
+ * Each stage is timed, and the first failure stops the wait without waiting for the other stages.
+ */
+package dev.assign2.main;
+
+import dev.assign2.managers.GameManager;
+import dev.assign2.managers.PlayerManager;
+import dev.assign2.managers.PlayerStore;
+import dev.assign2.managers.TeamManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StartupLoader {
+
+    private final TeamManager teamManager;
+    private final PlayerManager playerManager;
+    private final GameManager gameManager;
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Constructs a new StartupLoader for the given managers.
+     *
+     * @param teamManager   the TeamManager to load teams into
+     * @param playerManager the PlayerManager to load players into
+     * @param gameManager   the GameManager to load games into
+     */
+    public StartupLoader(TeamManager teamManager, PlayerManager playerManager, GameManager gameManager) {
+        this.teamManager = teamManager;
+        this.playerManager = playerManager;
+        this.gameManager = gameManager;
+    }
+
+    /**
+     * Loads all three CSV files, running independent stages concurrently.
+     *
+     * @param teamsCsv   the path to the teams CSV file
+     * @param playersCsv the path to the players CSV file
+     * @param gamesCsv   the path to the games CSV file
+     * @throws Exception if any stage fails; the message lists every failure seen so far
+     */
+    public void load(String teamsCsv, String playersCsv, String gamesCsv) throws Exception {
+        load(teamsCsv, playersCsv, gamesCsv, false);
+    }
+
+    /**
+     * Loads the teams and players CSV files and either loads or lazily opens the games CSV file.
+     *
+     * @param teamsCsv   the path to the teams CSV file
+     * @param playersCsv the path to the players CSV file
+     * @param gamesCsv   the path to the games CSV file
+     * @param lazyGames  whether to open the games file with {@link GameManager#openGames} instead of loading it
+     * @throws Exception if any stage fails; the message lists every failure seen so far
+     */
+    public void load(String teamsCsv, String playersCsv, String gamesCsv, boolean lazyGames) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.nanoTime();
+            CompletableFuture<Void> teams = stage("teams", executor, () -> {
+                teamManager.loadTeams(teamsCsv);
+                return null;
+            });
+            CompletableFuture<PlayerStore> parsedPlayers = stage("players (parse)", executor,
+                    () -> playerManager.readPlayers(playersCsv));
+            CompletableFuture<Void> games = stage("games", executor, () -> {
+                if (lazyGames) {
+                    gameManager.openGames(gamesCsv);
+                } else {
+                    gameManager.loadGames(gamesCsv);
+                }
+                return null;
+            });
+            CompletableFuture<Void> players = teams.thenCombine(parsedPlayers, (ignored, loaded) -> loaded)
+                    .thenAccept(loaded -> timed("players (assign)", () -> {
+                        playerManager.addLoadedPlayers(loaded, teamManager);
+                        return null;
+                    }));
+
+            List<CompletableFuture<?>> stages = List.of(teams, parsedPlayers, games, players);
+            CompletableFuture<Void> all = CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0]));
+            CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+            for (CompletableFuture<?> stage : stages) {
+                stage.whenComplete((value, error) -> {
+                    if (error != null) firstFailure.completeExceptionally(error);
+                });
+            }
+
+            try {
+                CompletableFuture.anyOf(all, firstFailure).join();
+            } catch (CompletionException e) {
+                throw aggregate(stages);
+            }
+            timings.put("total", System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the elapsed time of each completed stage in nanoseconds, in completion order.
+     *
+     * @return stage name to elapsed nanoseconds
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the stage timings in milliseconds.
+     *
+     * @return the formatted timings
+     */
+    public String formatTimings() {
+        StringBuilder sb = new StringBuilder("Loaded data in");
+        String separator = " ";
+        for (Map.Entry<String, Long> entry : getTimings().entrySet()) {
+            sb.append(separator).append(entry.getKey()).append(' ')
+                    .append(String.format("%.1f ms", entry.getValue() / 1_000_000.0));
+            separator = ", ";
+        }
+        return sb.toString();
+    }
+
+    private <T> CompletableFuture<T> stage(String name, ExecutorService executor, Callable<T> work) {
+        return CompletableFuture.supplyAsync(() -> timed(name, work), executor);
+    }
+
+    private <T> T timed(String name, Callable<T> work) {
+        long start = System.nanoTime();
+        try {
+            T result = work.call();
+            timings.put(name, System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Combines the failures of every stage that has failed so far into one exception.
+     */
+    private static Exception aggregate(List<CompletableFuture<?>> stages) {
+        List<Throwable> failures = new ArrayList<>();
+        for (CompletableFuture<?> stage : stages) {
+            if (!stage.isCompletedExceptionally()) continue;
+            try {
+                stage.join();
+            } catch (CompletionException e) {
+                Throwable cause = e;
+                while (cause instanceof CompletionException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                // A dependent stage fails with the same cause as the stage it depends on
+                if (!failures.contains(cause)) failures.add(cause);
+            }
+        }
+        StringBuilder message = new StringBuilder();
+        for (Throwable failure : failures) {
+            if (message.length() > 0) message.append("; ");
+            message.append(failure.getMessage());
+        }
+        Exception aggregated = new Exception(message.toString());
+        for (Throwable failure : failures) aggregated.addSuppressed(failure);
+        return aggregated;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Merges feeds of new teams and players into the managers in one batch.
+ * Both inputs are validated completely before anything is applied: a row with the wrong width, a blank or
+ * malformed field, a duplicate or an unknown team is rejected and reported, and the rest are added together.
+ * Team membership is resolved once per distinct team name, and players reach the store and the rosters
+ * through the same bulk path as a startup load. Players may belong to teams added by the same import.
+ * A player whose ID is already loaded replaces the existing player, so a feed can update rosters.
+ */
+package dev.assign2.managers;
+
+import dev.assign2.io.CsvReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class BulkImporter {
+
+    private static final String TEAMS = "teams";
+    private static final String PLAYERS = "players";
+
+    private final TeamManager teamManager;
+    private final PlayerManager playerManager;
+    private final SymbolTable symbols = SymbolTable.shared();
+
+    /**
+     * A validated team row waiting to be added.
+     */
+    static final class PendingTeam {
+        final String name;
+        final String city;
+        final String coachName;
+        final int yearsOfExperience;
+
+        PendingTeam(String name, String city, String coachName, int yearsOfExperience) {
+            this.name = name;
+            this.city = city;
+            this.coachName = coachName;
+            this.yearsOfExperience = yearsOfExperience;
+        }
+    }
+
+    /**
+     * Constructs an importer over existing managers.
+     *
+     * @param teamManager   TeamManager instance to add teams to
+     * @param playerManager PlayerManager instance to add players to
+     */
+    public BulkImporter(TeamManager teamManager, PlayerManager playerManager) {
+        this.teamManager = teamManager;
+        this.playerManager = playerManager;
+    }
+
+    /**
+     * Imports teams and players from CSV files in the same formats as the startup files.
+     *
+     * @param teamsCsv   the path to the teams CSV file, optionally gzip-compressed, or null to import players only
+     * @param playersCsv the path to the players CSV file, optionally gzip-compressed, or null to import teams only
+     * @return the counts of added and rejected rows
+     * @throws Exception if a file is not found or cannot be parsed; nothing is imported in that case
+     */
+    public ImportReport importFiles(String teamsCsv, String playersCsv) throws Exception {
+        try (ReadableByteChannel teams = open(teamsCsv);
+             ReadableByteChannel players = open(playersCsv)) {
+            return importChannels(teams, players);
+        } catch (NoSuchFileException e) {
+            throw new Exception("File not found: " + e.getFile());
+        }
+    }
+
+    /**
+     * Imports teams and players from CSV streams in the same formats as the startup files.
+     * The streams are read to the end but not closed.
+     *
+     * @param teams   the teams CSV data, or null to import players only
+     * @param players the players CSV data, or null to import teams only
+     * @return the counts of added and rejected rows
+     * @throws Exception if a stream cannot be read or parsed; nothing is imported in that case
+     */
+    public ImportReport importStreams(InputStream teams, InputStream players) throws Exception {
+        return importChannels(teams != null ? Channels.newChannel(teams) : null,
+                players != null ? Channels.newChannel(players) : null);
+    }
+
+    private ImportReport importChannels(ReadableByteChannel teams, ReadableByteChannel players) throws Exception {
+        ImportReport report = new ImportReport();
+        List<PendingTeam> pendingTeams = new ArrayList<>();
+        Set<Integer> newTeamKeys = new HashSet<>();
+        PlayerStore pendingPlayers = new PlayerStore();
+        try {
+            if (teams != null) {
+                CsvReader.read(teams, row -> validateTeam(row, pendingTeams, newTeamKeys, report));
+            }
+            if (players != null) {
+                Map<Integer, Boolean> knownTeams = new HashMap<>();
+                Set<String> batchIds = new HashSet<>();
+                CsvReader.read(players, row -> validatePlayer(row, newTeamKeys, knownTeams, batchIds, pendingPlayers, report));
+            }
+        } catch (IOException e) {
+            throw new Exception("Error processing import file.");
+        }
+
+        int addedTeams = teamManager.importTeams(pendingTeams);
+        int replaced = playerManager.importPlayers(pendingPlayers, teamManager);
+        report.added(addedTeams, pendingPlayers.size() - replaced, replaced);
+        return report;
+    }
+
+    private void validateTeam(CsvReader.Row row, List<PendingTeam> pending, Set<Integer> newTeamKeys, ImportReport report) {
+        if (row.size() != 3 && row.size() != 4) {
+            report.reject(TEAMS, row.number(), "Expected 3 or 4 columns, found " + row.size());
+            return;
+        }
+        String name = row.getString(0);
+        String city = row.getString(1);
+        String coachName = row.getString(2);
+        if (name.isBlank() || city.isBlank() || coachName.isBlank()) {
+            report.reject(TEAMS, row.number(), "Team name, city and coach are required");
+            return;
+        }
+        int yearsOfExperience;
+        try {
+            yearsOfExperience = row.size() > 3 ? row.getInt(3) : 0;
+        } catch (NumberFormatException e) {
+            report.reject(TEAMS, row.number(), "Invalid years of experience: " + row.getString(3));
+            return;
+        }
+        if (yearsOfExperience < 0) {
+            report.reject(TEAMS, row.number(), "Invalid years of experience: " + yearsOfExperience);
+            return;
+        }
+        if (teamManager.lookup(name) != null || !newTeamKeys.add(symbols.keyId(name))) {
+            report.reject(TEAMS, row.number(), "Duplicate team: " + name.trim());
+            return;
+        }
+        pending.add(new PendingTeam(name, city, coachName, yearsOfExperience));
+    }
+
+    private void validatePlayer(CsvReader.Row row, Set<Integer> newTeamKeys, Map<Integer, Boolean> knownTeams,
+                                Set<String> batchIds, PlayerStore pending, ImportReport report) {
+        // IDs cannot be checked against the players of teams that are not loaded
+        if (playerManager.isPartial()) {
+            report.reject(PLAYERS, row.number(), "Players cannot be added while only some teams are loaded");
+            return;
+        }
+        if (row.size() != 5) {
+            report.reject(PLAYERS, row.number(), "Expected 5 columns, found " + row.size());
+            return;
+        }
+        String playerId = row.getString(0);
+        String name = row.getString(1);
+        String teamName = row.getString(3);
+        String position = row.getString(4);
+        if (playerId.isBlank() || name.isBlank()) {
+            report.reject(PLAYERS, row.number(), "Player ID and name are required");
+            return;
+        }
+        int age;
+        try {
+            age = row.getInt(2);
+        } catch (NumberFormatException e) {
+            report.reject(PLAYERS, row.number(), "Invalid age: " + row.getString(2));
+            return;
+        }
+        if (age < 0) {
+            report.reject(PLAYERS, row.number(), "Invalid age: " + age);
+            return;
+        }
+        // Names never seen by the symbol table cannot belong to any team
+        int teamKey = symbols.findKeyId(teamName);
+        boolean known = teamKey >= 0 && knownTeams.computeIfAbsent(teamKey,
+                key -> newTeamKeys.contains(key) || teamManager.lookup(teamName) != null);
+        if (!known) {
+            report.reject(PLAYERS, row.number(), "Team not found: " + teamName.trim());
+            return;
+        }
+        if (!batchIds.add(playerId.trim())) {
+            report.reject(PLAYERS, row.number(), "Duplicate player ID: " + playerId);
+            return;
+        }
+        pending.add(playerId, name, age, teamName, position);
+    }
+
+    private static ReadableByteChannel open(String csvFilePath) throws IOException {
+        return csvFilePath != null ? CsvReader.open(Path.of(csvFilePath)) : null;
+    }
+}
@@ -1,71 +1,438 @@
 /**
- * Manages game-related operations such as loading and displaying games.
+ * Manages game-related operations such as loading, displaying and querying games.
+ * Games are indexed by date overall, and per team and per location, for logarithmic schedule queries,
+ * and feed league standings that are updated as each game is added or corrected.
+ * Queries may run on any thread while games are added or rescored; adds are serialized.
+ * Loads, queries, adds and display are counted and timed in the shared {@link Metrics}.
+ * Games can also be opened lazily, in which case listing and display read the file a page at a time
+ * and the indexes and standings are built from it the first time a query or change needs them.
+ * An off-heap manager copies each game into a {@link GameStore} record outside the Java heap and returns views of it.
  */
 package dev.assign2.managers;
 
+import dev.assign2.io.CsvReader;
+import dev.assign2.io.TableWriter;
 import dev.assign2.models.Game;
+import dev.assign2.models.TeamRecord;
+import dev.assign2.util.Metrics;
+import dev.assign2.util.SnapshotList;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class GameManager {
 
-    private final List<Game> games = new ArrayList<>();
+    private final SnapshotList<Game> games = new SnapshotList<>();
+    // Null unless games are kept off the heap, in which case the list above stays empty
+    private final GameStore store;
+    private final SymbolTable symbols = SymbolTable.shared();
+
+    private final Supplier<Schedule.Games> table = this::table;
+    private final Schedule schedule = new Schedule(table);
+    // Keyed by case-insensitive symbol key IDs of team names and locations
+    private final Map<Integer, Schedule> schedulesByTeam = new ConcurrentHashMap<>();
+    private final Map<Integer, Schedule> schedulesByLocation = new ConcurrentHashMap<>();
+    private final Standings standings = new Standings();
+    // Set while the games of a lazily opened file have not been registered yet
+    private volatile GamePages pages;
+    // Set once a file was opened lazily; games read from its pages are copies of the registered ones
+    private volatile boolean paged;
+
+    private final Metrics.Timer loadTimer = Metrics.shared().timer("games.load");
+    private final Metrics.Timer findTimer = Metrics.shared().timer("games.find");
+    private final Metrics.Timer displayTimer = Metrics.shared().timer("games.display");
+    private final Metrics.Counter adds = Metrics.shared().counter("games.add");
+
+    /**
+     * Constructs a game manager that keeps its games on the Java heap.
+     */
+    public GameManager() {
+        this(false);
+    }
+
+    /**
+     * Constructs a game manager.
+     *
+     * @param offHeap whether to keep games as fixed-width records in direct memory outside the Java heap;
+     *                games are then copied when added, and queries return views of the copies
+     */
+    public GameManager(boolean offHeap) {
+        this.store = offHeap ? new GameStore() : null;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory holding games; always 0 for a heap manager.
+     *
+     * @return allocated off-heap bytes
+     */
+    public long getOffHeapBytes() {
+        return store != null ? store.offHeapBytes() : 0;
+    }
 
     /**
      * Loads games from a CSV file.
      *
-     * @param csvFilePath the path to the CSV file containing game data
+     * @param csvFilePath the path to the CSV file containing game data, optionally gzip-compressed
      * @throws Exception if the file is not found or has an invalid format
      */
     public void loadGames(String csvFilePath) throws Exception {
-        try (BufferedReader buff = new BufferedReader(new FileReader(csvFilePath))) {
-            String line = buff.readLine();
-            if (line == null) throw new Exception("Empty CSV file: " + csvFilePath);
-            int numCols = line.split(",").length;
-
-            // Process the first line as data and then remaining lines
-            do {
-                String[] fields = line.split(",");
-                if (fields.length != numCols) {
-                    throw new Exception("Invalid CSV format for games. Expected " + numCols + " columns.");
-                }
-                String team1 = fields[0];
-                String team2 = fields[1];
-                String date = fields[2];
-                String location = fields[3];
-                String score = fields[4];
-
-                games.add(new Game(team1, team2, date, location, score));
-            } while ((line = buff.readLine()) != null);
-        } catch (FileNotFoundException e) {
+        Metrics.Sample sample = loadTimer.start();
+        int rows;
+        try {
+            // The first line is data too; its width is the expected width of every row
+            rows = CsvReader.read(Path.of(csvFilePath), row -> register(parse(row, row.expectedSize())));
+        } catch (NoSuchFileException e) {
             throw new Exception("File not found: " + csvFilePath);
-        } catch (IOException e) {
+        } catch (IOException | DateTimeException | NumberFormatException e) {
+            throw new Exception("Error processing games file.");
+        }
+        sample.stop(rows);
+        if (rows == 0) throw new Exception("Empty CSV file: " + csvFilePath);
+    }
+
+    /**
+     * Opens games from a CSV file without loading them. Only the offsets of pages of rows are read now;
+     * listing and display parse the pages they touch, and the first query, score update or added game
+     * loads the rest. The file may be appended to but must not otherwise change while games are in use.
+     * A compressed file cannot be read at page offsets, so it is loaded in full as by {@link #loadGames}.
+     *
+     * @param csvFilePath the path to the CSV file containing game data, optionally gzip-compressed
+     * @throws Exception if the file is not found, is empty or its first rows have an invalid format
+     */
+    public void openGames(String csvFilePath) throws Exception {
+        Metrics.Sample sample = loadTimer.start();
+        GamePages opened;
+        try {
+            if (CsvReader.isCompressed(Path.of(csvFilePath))) {
+                loadGames(csvFilePath);
+                return;
+            }
+            opened = GamePages.open(Path.of(csvFilePath), this::parse);
+        } catch (NoSuchFileException e) {
+            throw new Exception("File not found: " + csvFilePath);
+        } catch (IOException | DateTimeException | NumberFormatException e) {
             throw new Exception("Error processing games file.");
         }
+        sample.stop(opened.size());
+        if (opened.size() == 0) throw new Exception("Empty CSV file: " + csvFilePath);
+        paged = true;
+        pages = opened;
     }
 
+    private Game parse(CsvReader.Row row, int width) throws Exception {
+        if (row.size() != width) {
+            throw new Exception("Invalid CSV format for games. Expected " + width + " columns.");
+        }
+        String team1 = symbols.intern(row.getString(0));
+        String team2 = symbols.intern(row.getString(1));
+        String date = row.getString(2);
+        String location = symbols.intern(row.getString(3));
+        String score = row.getString(4);
+        return new Game(team1, team2, date, location, score);
+    }
 
     /**
      * Displays all loaded games in a formatted table.
      */
     public void displayGames() {
-        System.out.println("------------------------------------------------------------------------------");
-        System.out.printf("%-15s %-15s %-12s %-15s %-7s%n", "Team 1", "Team 2", "Date", "Location", "Score");
-        System.out.println("------------------------------------------------------------------------------");
-
-        for (Game game : games) {
-            System.out.printf("%-15s %-15s %-12s %-15s %-7s%n",
-                    game.getTeam1(),
-                    game.getTeam2(),
-                    game.getDate(),
-                    game.getLocation(),
-                    game.getScore());
+        try {
+            displayGames(TableWriter.standardOut(), 0, Integer.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
-}
 
+    /**
+     * Writes a page of the games table.
+     *
+     * @param out     the destination, for example standard output or a file
+     * @param first   the index of the first game to write
+     * @param maxRows the maximum number of games to write
+     * @return the number of games written
+     * @throws IOException if the destination cannot be written
+     */
+    public int displayGames(Writer out, int first, int maxRows) throws IOException {
+        Metrics.Sample sample = displayTimer.start();
+        TableWriter table = new TableWriter(out, 15, 15, 12, 15, 7);
+        table.line("------------------------------------------------------------------------------");
+        table.header("Team 1", "Team 2", "Date", "Location", "Score");
+        table.line("------------------------------------------------------------------------------");
+
+        List<Game> snapshot = getGames();
+        int end = (int) Math.min(snapshot.size(), (long) first + maxRows);
+        try {
+            for (int i = Math.max(0, first); i < end; i++) {
+                Game game = snapshot.get(i);
+                table.cell(game.getTeam1())
+                        .cell(game.getTeam2())
+                        .cell(game.getDate())
+                        .cell(game.getLocation())
+                        .cell(game.getScore())
+                        .endRow();
+            }
+        } catch (UncheckedIOException e) {
+            // A page of a lazily opened file could not be read
+            throw e.getCause();
+        }
+        table.flush();
+        int written = Math.max(0, end - Math.max(0, first));
+        sample.stop(written);
+        return written;
+    }
+
+    /**
+     * Adds already built games, for example ones restored from a snapshot, keeping their order.
+     *
+     * @param loaded the games to add
+     */
+    public void addLoadedGames(List<Game> loaded) {
+        indexed();
+        for (Game game : loaded) {
+            register(game);
+        }
+    }
+
+    /**
+     * Adds a single game to the schedule and standings.
+     *
+     * @param game the game to add
+     */
+    public void addGame(Game game) {
+        indexed();
+        register(game);
+        adds.increment();
+    }
+
+    /**
+     * Sets or corrects a game's score and updates the standings for just that game.
+     * A game read from the pages of a lazily opened file is a copy, so the registered game with the same
+     * teams and date is updated instead.
+     *
+     * @param game   a game returned by this manager, or for a heap manager one previously added to it
+     * @param score1 the first team's points, or {@link Game#NO_SCORE}
+     * @param score2 the second team's points, or {@link Game#NO_SCORE}
+     */
+    public void updateScore(Game game, int score1, int score2) {
+        indexed();
+        standings.rescore(paged ? registered(game) : game, score1, score2);
+    }
+
+    /**
+     * Returns the registered game with the same teams and date as a game, preferring the game itself and
+     * then one with the same score. Returns the game itself if none matches.
+     */
+    private Game registered(Game game) {
+        Schedule found = find(schedulesByTeam, game.getTeam1());
+        if (found == null) return game;
+        Game first = null;
+        Game sameScore = null;
+        for (Game candidate : found.between(game.getEpochDay(), game.getEpochDay())) {
+            if (!Objects.equals(candidate.getTeam1(), game.getTeam1())
+                    || !Objects.equals(candidate.getTeam2(), game.getTeam2())) continue;
+            if (candidate.equals(game)) return candidate;
+            if (first == null) first = candidate;
+            if (sameScore == null && candidate.getScore1() == game.getScore1()
+                    && candidate.getScore2() == game.getScore2()) sameScore = candidate;
+        }
+        return sameScore != null ? sameScore : first != null ? first : game;
+    }
+
+    /**
+     * Returns the league standings ranked by winning percentage, then point differential.
+     *
+     * @return an unmodifiable ranked list of team records
+     */
+    public List<TeamRecord> getStandings() {
+        indexed();
+        return standings.getRanked();
+    }
+
+    /**
+     * Returns a team's win/loss/tie record and points.
+     *
+     * @param teamName the name of the team
+     * @return the team's record, or null if it has no played games
+     */
+    public TeamRecord getRecord(String teamName) {
+        indexed();
+        return standings.getRecord(teamName);
+    }
+
+    /**
+     * Finds all games played between two dates, both inclusive.
+     *
+     * @param from the first date to include
+     * @param to   the last date to include
+     * @return an unmodifiable list of matching games in date order
+     */
+    public List<Game> findGamesBetween(LocalDate from, LocalDate to) {
+        indexed();
+        Metrics.Sample sample = findTimer.start();
+        List<Game> found = schedule.between((int) from.toEpochDay(), (int) to.toEpochDay());
+        sample.stop(found.size());
+        return found;
+    }
+
+    /**
+     * Finds all games a team plays in, home or away.
+     *
+     * @param teamName the name of the team
+     * @return an unmodifiable list of the team's games in date order; empty if none
+     */
+    public List<Game> findGamesByTeam(String teamName) {
+        return findAll(schedulesByTeam, teamName);
+    }
+
+    /**
+     * Finds all games played at a location.
+     *
+     * @param location the location to search for
+     * @return an unmodifiable list of games at the location in date order; empty if none
+     */
+    public List<Game> findGamesByLocation(String location) {
+        return findAll(schedulesByLocation, location);
+    }
+
+    /**
+     * Finds a team's first game on or after a date.
+     *
+     * @param teamName the name of the team
+     * @param date     the date to search from
+     * @return the next game, or null if the team has no game on or after the date
+     */
+    public Game findNextGame(String teamName, LocalDate date) {
+        indexed();
+        Schedule found = find(schedulesByTeam, teamName);
+        return found != null ? found.firstOnOrAfter((int) date.toEpochDay()) : null;
+    }
+
+    /**
+     * Finds a team's last game before a date.
+     *
+     * @param teamName the name of the team
+     * @param date     the date to search back from
+     * @return the previous game, or null if the team has no game before the date
+     */
+    public Game findPreviousGame(String teamName, LocalDate date) {
+        indexed();
+        Schedule found = find(schedulesByTeam, teamName);
+        return found != null ? found.lastBefore((int) date.toEpochDay()) : null;
+    }
+
+    /**
+     * Returns all games in load order. While games are opened lazily, their pages are read as the list is used,
+     * and reading a page that cannot be parsed throws UncheckedIOException.
+     *
+     * @return an unmodifiable snapshot of the games
+     */
+    public List<Game> getGames() {
+        GamePages opened = pages;
+        if (opened != null) return opened.asList();
+        return store != null ? store.snapshot() : games.snapshot();
+    }
+
+    /**
+     * Registers the games of a lazily opened file, if that has not happened yet.
+     *
+     * @throws UncheckedIOException if a page of the file cannot be read
+     */
+    private void indexed() {
+        if (pages == null) return;
+        synchronized (this) {
+            GamePages opened = pages;
+            if (opened == null) return;
+            Metrics.Sample sample = loadTimer.start();
+            // Read everything before registering anything, so a failed read can be retried
+            List<Game> loaded = new ArrayList<>(opened.size());
+            try {
+                opened.forEach(loaded::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            loaded.forEach(this::register);
+            pages = null;
+            sample.stop(opened.size());
+        }
+    }
+
+    private List<Game> findAll(Map<Integer, Schedule> index, String key) {
+        indexed();
+        Metrics.Sample sample = findTimer.start();
+        Schedule found = find(index, key);
+        List<Game> matches = found != null ? found.all() : Collections.emptyList();
+        sample.stop(matches.size());
+        return matches;
+    }
+
+    /**
+     * Appends a game to the list or store and its number to every schedule index.
+     *
+     * @param game the game to register
+     */
+    private synchronized void register(Game game) {
+        int number;
+        if (store != null) {
+            number = store.add(game);
+        } else {
+            games.add(game);
+            number = games.size() - 1;
+        }
+        int day = game.getEpochDay();
+        schedule.add(number, day);
+        standings.add(game);
+        int team1 = symbols.keyId(game.getTeam1());
+        int team2 = symbols.keyId(game.getTeam2());
+        schedulesByTeam.computeIfAbsent(team1, k -> new Schedule(table)).add(number, day);
+        if (team2 != team1) {
+            schedulesByTeam.computeIfAbsent(team2, k -> new Schedule(table)).add(number, day);
+        }
+        int location = symbols.keyId(game.getLocation());
+        schedulesByLocation.computeIfAbsent(location, k -> new Schedule(table)).add(number, day);
+    }
+
+    /**
+     * Returns the registered games by number, as of now.
+     */
+    private Schedule.Games table() {
+        return store != null ? store : new HeapGames(games.snapshot());
+    }
+
+    /**
+     * Heap games by number, read from a snapshot of the list.
+     */
+    private static final class HeapGames implements Schedule.Games {
+        private final List<Game> games;
+
+        HeapGames(List<Game> games) {
+            this.games = games;
+        }
+
+        @Override
+        public int epochDay(int number) {
+            return games.get(number).getEpochDay();
+        }
+
+        @Override
+        public Game get(int number) {
+            return games.get(number);
+        }
+    }
+
+    private Schedule find(Map<Integer, Schedule> index, String key) {
+        if (key == null) return null;
+        int keyId = symbols.findKeyId(key);
+        return keyId >= 0 ? index.get(keyId) : null;
+    }
+}
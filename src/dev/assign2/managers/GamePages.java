@@ -0,0 +1,188 @@
+/**
+ * The games of a CSV file, parsed a page at a time when first read instead of all at startup.
+ * Opening the file only scans it for the byte offset of every page, so the heap held per game is a fraction
+ * of a bit and startup never creates a game; the most recently read pages are cached.
+ * Pages are read back from the offsets found by the scan, so lines appended afterwards are not part of it,
+ * but the file must not otherwise be rewritten while its games are in use.
+ */
+package dev.assign2.managers;
+
+import dev.assign2.io.CsvReader;
+import dev.assign2.models.Game;
+import dev.assign2.util.Metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+final class GamePages {
+
+    static final int PAGE_SIZE = 256;
+    private static final int CACHED_PAGES = 64;
+
+    /**
+     * Builds a game from a row, checking it has the width of the file's first row.
+     */
+    @FunctionalInterface
+    interface Parser {
+        Game parse(CsvReader.Row row, int width) throws Exception;
+    }
+
+    private final Path path;
+    private final Parser parser;
+    // Start of each page, then the end of the file as scanned
+    private final long[] offsets;
+    private final int size;
+    private int width;
+
+    private final Map<Integer, List<Game>> cache = new LinkedHashMap<>(CACHED_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Game>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    private final Metrics.Timer pageTimer = Metrics.shared().timer("games.page");
+    private final Metrics.Counter pageHits = Metrics.shared().counter("games.page.hit");
+
+    private GamePages(Path path, Parser parser, long[] offsets, int size) {
+        this.path = path;
+        this.parser = parser;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Scans a file for its page offsets and parses the first page, which fixes the expected row width.
+     *
+     * @throws Exception if the file cannot be read or its first page is invalid
+     */
+    static GamePages open(Path path, Parser parser) throws Exception {
+        LongStream.Builder offsets = LongStream.builder();
+        int size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = CsvReader.rowOffsets(channel, PAGE_SIZE, offsets);
+        }
+        GamePages pages = new GamePages(path, parser, offsets.build().toArray(), size);
+        if (size > 0) {
+            pages.cache.put(0, pages.parse(0));
+        }
+        return pages;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the game at an index, reading its page if it is not cached.
+     */
+    Game get(int index) throws IOException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Game " + index + " of " + size);
+        }
+        return page(index / PAGE_SIZE).get(index % PAGE_SIZE);
+    }
+
+    /**
+     * Passes every game to an action in file order. Cached pages are reused but others are not added to the cache.
+     */
+    void forEach(Consumer<Game> action) throws IOException {
+        for (int page = 0; page < offsets.length - 1; page++) {
+            List<Game> games;
+            synchronized (this) {
+                games = cache.get(page);
+            }
+            if (games == null) games = read(page);
+            games.forEach(action);
+        }
+    }
+
+    /**
+     * Returns a read-only list over the games; reading a game that cannot be parsed throws UncheckedIOException.
+     */
+    List<Game> asList() {
+        return new Games();
+    }
+
+    private List<Game> page(int page) throws IOException {
+        synchronized (this) {
+            List<Game> games = cache.get(page);
+            if (games != null) {
+                pageHits.increment();
+                return games;
+            }
+        }
+        List<Game> games = read(page);
+        synchronized (this) {
+            // Another thread may have read the same page meanwhile; keep the first copy so games stay identical
+            List<Game> raced = cache.putIfAbsent(page, games);
+            return raced != null ? raced : games;
+        }
+    }
+
+    private List<Game> read(int page) throws IOException {
+        try {
+            return parse(page);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error processing games file.", e);
+        }
+    }
+
+    private List<Game> parse(int page) throws Exception {
+        Metrics.Sample sample = pageTimer.start();
+        int expected = Math.min(PAGE_SIZE, size - page * PAGE_SIZE);
+        ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(offsets[page + 1] - offsets[page]));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, offsets[page] + bytes.position()) < 0) {
+                    throw new IOException("Games file changed since it was opened: " + path);
+                }
+            }
+        }
+        bytes.flip();
+        List<Game> games = new ArrayList<>(expected);
+        CsvReader.read(bytes, row -> {
+            // The first row of the file sets the width; later pages are checked against it
+            if (width == 0) width = row.size();
+            games.add(parser.parse(row, width));
+        });
+        if (games.size() != expected) {
+            throw new IOException("Games file changed since it was opened: " + path);
+        }
+        sample.stop(games.size());
+        return games;
+    }
+
+    /**
+     * A list view that reads pages as its games are requested.
+     */
+    private final class Games extends AbstractList<Game> implements RandomAccess {
+        @Override
+        public Game get(int index) {
+            try {
+                return GamePages.this.get(index);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
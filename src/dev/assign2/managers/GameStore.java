@@ -0,0 +1,166 @@
+/**
+ * Games kept as fixed-width records in direct memory, outside the Java heap.
+ * Each record holds the two teams and the location as IDs in the shared {@link SymbolTable}, the epoch day and
+ * both scores, so the heap holds nothing per game. Callers see games through {@link Game} views that read
+ * their record on demand; setting a view's score writes it to the record.
+ * Adds are serialized by the owning manager and published with a volatile count, so readers never lock.
+ */
+package dev.assign2.managers;
+
+import dev.assign2.models.Game;
+
+import java.io.Serial;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+final class GameStore implements Schedule.Games {
+
+    private static final int TEAM1 = 0;
+    private static final int TEAM2 = 1;
+    private static final int EPOCH_DAY = 2;
+    private static final int LOCATION = 3;
+    private static final int SCORE1 = 4;
+    private static final int SCORE2 = 5;
+    private static final int FIELDS = 6;
+
+    private final OffHeapRecords records = new OffHeapRecords(FIELDS);
+    private final SymbolTable symbols = SymbolTable.shared();
+    private volatile int size;
+
+    /**
+     * Appends a copy of a game and returns its number.
+     */
+    synchronized int add(Game game) {
+        int number = size;
+        records.ensureCapacity(number + 1);
+        records.putInt(number, TEAM1, symbols.id(game.getTeam1()));
+        records.putInt(number, TEAM2, symbols.id(game.getTeam2()));
+        records.putInt(number, EPOCH_DAY, game.getEpochDay());
+        records.putInt(number, LOCATION, symbols.id(game.getLocation()));
+        records.putInt(number, SCORE1, game.getScore1());
+        records.putInt(number, SCORE2, game.getScore2());
+        size = number + 1;
+        return number;
+    }
+
+    int size() {
+        return size;
+    }
+
+    synchronized long offHeapBytes() {
+        return records.bytes();
+    }
+
+    @Override
+    public int epochDay(int number) {
+        return records.getInt(number, EPOCH_DAY);
+    }
+
+    @Override
+    public Game get(int number) {
+        return new GameView(this, number);
+    }
+
+    /**
+     * Returns the games stored at this moment as an unmodifiable list of views.
+     */
+    List<Game> snapshot() {
+        int count = size;
+        return new Games(count);
+    }
+
+    private final class Games extends AbstractList<Game> implements RandomAccess {
+        private final int count;
+
+        Games(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public Game get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + count);
+            }
+            return new GameView(GameStore.this, index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * A Game whose fields are read from a record of the store on demand.
+     */
+    private static final class GameView extends Game {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient GameStore store;
+        private final int number;
+
+        GameView(GameStore store, int number) {
+            super(null, null, 0, null, NO_SCORE, NO_SCORE);
+            this.store = store;
+            this.number = number;
+        }
+
+        @Override
+        public String getTeam1() {
+            return store.symbols.value(store.records.getInt(number, TEAM1));
+        }
+
+        @Override
+        public String getTeam2() {
+            return store.symbols.value(store.records.getInt(number, TEAM2));
+        }
+
+        @Override
+        public int getEpochDay() {
+            return store.records.getInt(number, EPOCH_DAY);
+        }
+
+        @Override
+        public String getLocation() {
+            return store.symbols.value(store.records.getInt(number, LOCATION));
+        }
+
+        @Override
+        public int getScore1() {
+            return store.records.getInt(number, SCORE1);
+        }
+
+        @Override
+        public int getScore2() {
+            return store.records.getInt(number, SCORE2);
+        }
+
+        @Override
+        public void setScore(int score1, int score2) {
+            synchronized (store) {
+                store.records.putInt(number, SCORE1, score1);
+                store.records.putInt(number, SCORE2, score2);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GameView other && other.store == store && other.number == number;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(store) * 31 + number;
+        }
+
+        /**
+         * Serializes the view as a plain Game holding copies of its values.
+         */
+        @Serial
+        private Object writeReplace() {
+            return new Game(getTeam1(), getTeam2(), getEpochDay(), getLocation(), getScore1(), getScore2());
+        }
+    }
+}
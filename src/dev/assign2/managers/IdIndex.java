@@ -0,0 +1,142 @@
+/**
+ * Open-addressing index from trimmed player IDs to rows of a {@link PlayerStore}.
+ * Each slot is a single long holding the ID's hash in the high half and the row in the low half, so the
+ * index keeps no per-player objects; only a probe whose hash matches reads the ID back from the store.
+ * Writes must be serialized by the owner. Readers probe without locking: slots are read and written with
+ * volatile semantics, and a grown table is published only after it has been filled.
+ */
+package dev.assign2.managers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+final class IdIndex {
+
+    private static final long EMPTY = 0;
+    // A removed entry: probes go on past it, and puts reuse it. The low half of an entry is never 0.
+    private static final long REMOVED = -1L << 32;
+    private static final int MIN_CAPACITY = 16;
+
+    // Reads the trimmed ID stored in a row
+    private final IntFunction<String> keys;
+    private volatile AtomicLongArray slots = new AtomicLongArray(MIN_CAPACITY);
+    // Writer-side counts; used includes removed slots, since they lengthen probes just the same
+    private int size;
+    private int used;
+
+    IdIndex(IntFunction<String> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Returns the row of an ID, or -1 if the ID is not in the index.
+     */
+    int get(String key) {
+        AtomicLongArray table = slots;
+        int hash = key.hashCode();
+        int mask = table.length() - 1;
+        for (int slot = start(hash, mask); ; slot = (slot + 1) & mask) {
+            long entry = table.get(slot);
+            if (entry == EMPTY) return -1;
+            if (matches(entry, hash, key)) return row(entry);
+        }
+    }
+
+    /**
+     * Maps an ID to a row and returns the row it was mapped to before, or -1 if it was new.
+     */
+    int put(String key, int row) {
+        int hash = key.hashCode();
+        AtomicLongArray table = slots;
+        int mask = table.length() - 1;
+        int free = -1;
+        for (int slot = start(hash, mask); ; slot = (slot + 1) & mask) {
+            long entry = table.get(slot);
+            if (entry == EMPTY) {
+                if (free < 0) {
+                    if (used + 1 > table.length() * 3L / 4) {
+                        resize(size + 1);
+                        return put(key, row);
+                    }
+                    used++;
+                    free = slot;
+                }
+                table.set(free, entry(hash, row));
+                size++;
+                return -1;
+            }
+            if (entry == REMOVED) {
+                if (free < 0) free = slot;
+            } else if (matches(entry, hash, key)) {
+                table.set(slot, entry(hash, row));
+                return row(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes an ID and returns the row it was mapped to, or -1 if it was not in the index.
+     */
+    int remove(String key) {
+        AtomicLongArray table = slots;
+        int hash = key.hashCode();
+        int mask = table.length() - 1;
+        for (int slot = start(hash, mask); ; slot = (slot + 1) & mask) {
+            long entry = table.get(slot);
+            if (entry == EMPTY) return -1;
+            if (entry != REMOVED && matches(entry, hash, key)) {
+                table.set(slot, REMOVED);
+                size--;
+                return row(entry);
+            }
+        }
+    }
+
+    /**
+     * Grows the table once so that the given number of IDs fit without rehashing.
+     */
+    void ensureCapacity(int count) {
+        if (count > slots.length() * 3L / 4) resize(count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the entries into a table with room for the given number of IDs, leaving removed slots behind.
+     */
+    private void resize(int count) {
+        AtomicLongArray old = slots;
+        int capacity = MIN_CAPACITY;
+        while (count > capacity * 3L / 4) capacity <<= 1;
+        AtomicLongArray table = new AtomicLongArray(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.length(); i++) {
+            long entry = old.get(i);
+            if (entry == EMPTY || entry == REMOVED) continue;
+            int slot = start((int) (entry >>> 32), mask);
+            while (table.get(slot) != EMPTY) slot = (slot + 1) & mask;
+            table.set(slot, entry);
+        }
+        used = size;
+        slots = table;
+    }
+
+    private boolean matches(long entry, int hash, String key) {
+        return (int) (entry >>> 32) == hash && entry != REMOVED && keys.apply(row(entry)).equals(key);
+    }
+
+    private static int start(int hash, int mask) {
+        int mixed = hash * 0x9E3779B9;
+        return (mixed ^ mixed >>> 16) & mask;
+    }
+
+    private static long entry(int hash, int row) {
+        return (long) hash << 32 | (row + 1L);
+    }
+
+    private static int row(long entry) {
+        return (int) entry - 1;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * The outcome of a bulk import: how many teams and players were added or replaced and which rows were rejected.
+ * Only the first {@link #MAX_DETAILS} rejections are kept in detail; the rest are counted.
+ */
+package dev.assign2.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class ImportReport {
+
+    /**
+     * The most rejections kept with their row and reason.
+     */
+    public static final int MAX_DETAILS = 1000;
+
+    private int teamsAdded;
+    private int playersAdded;
+    private int playersReplaced;
+    private int rejectedCount;
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    /**
+     * A row that was not imported.
+     */
+    public static final class Rejection {
+        private final String source;
+        private final int row;
+        private final String reason;
+
+        Rejection(String source, int row, String reason) {
+            this.source = source;
+            this.row = row;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns which input the row came from, "teams" or "players".
+         *
+         * @return the input name
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * Returns the 1-based row number within its input.
+         *
+         * @return row number
+         */
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * Returns why the row was rejected.
+         *
+         * @return the reason
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Returns a string representation of the rejection.
+         *
+         * @return a formatted string with the input, row and reason
+         */
+        @Override
+        public String toString() {
+            return source + " row " + row + ": " + reason;
+        }
+    }
+
+    void reject(String source, int row, String reason) {
+        rejectedCount++;
+        if (rejections.size() < MAX_DETAILS) {
+            rejections.add(new Rejection(source, row, reason));
+        }
+    }
+
+    void added(int teams, int players, int replacedPlayers) {
+        teamsAdded += teams;
+        playersAdded += players;
+        playersReplaced += replacedPlayers;
+    }
+
+    /**
+     * Returns the number of teams added.
+     *
+     * @return teams added
+     */
+    public int getTeamsAdded() {
+        return teamsAdded;
+    }
+
+    /**
+     * Returns the number of players added.
+     *
+     * @return players added
+     */
+    public int getPlayersAdded() {
+        return playersAdded;
+    }
+
+    /**
+     * Returns the number of existing players replaced by a player with the same ID.
+     *
+     * @return players replaced
+     */
+    public int getPlayersReplaced() {
+        return playersReplaced;
+    }
+
+    /**
+     * Returns the total number of rejected rows, including those not kept in detail.
+     *
+     * @return rejected row count
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns the rejected rows in input order, up to {@link #MAX_DETAILS} of them.
+     *
+     * @return an unmodifiable list of rejections
+     */
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    /**
+     * Returns a one-line summary of the import.
+     *
+     * @return a formatted summary
+     */
+    @Override
+    public String toString() {
+        return String.format("Imported %d teams and %d players, replaced %d players, rejected %d rows",
+                teamsAdded, playersAdded, playersReplaced, rejectedCount);
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Fixed-width records of int fields kept in direct memory, outside the Java heap.
+ * Records are stored in chunks that never move once allocated, so growing never copies earlier records, and
+ * a reader that learned the record count through its owner's volatile publish can read those records without locking.
+ * Writes must be serialized by the owner. The memory is released when the records are no longer reachable.
+ */
+package dev.assign2.managers;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+final class OffHeapRecords {
+
+    // Records per chunk
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    // Bytes per record
+    private final int width;
+    // Replaced by a longer copy when full; chunks already in it stay where they are
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int capacity;
+
+    OffHeapRecords(int fields) {
+        this.width = fields * Integer.BYTES;
+    }
+
+    /**
+     * Allocates chunks until the given number of records fits.
+     */
+    void ensureCapacity(int records) {
+        while (capacity < records) {
+            int chunk = capacity >>> CHUNK_SHIFT;
+            if (chunk == chunks.length) chunks = Arrays.copyOf(chunks, chunk * 2);
+            chunks[chunk] = ByteBuffer.allocateDirect(width << CHUNK_SHIFT).order(ByteOrder.nativeOrder());
+            capacity += 1 << CHUNK_SHIFT;
+        }
+    }
+
+    int getInt(int record, int field) {
+        return chunks[record >>> CHUNK_SHIFT].getInt((record & CHUNK_MASK) * width + field * Integer.BYTES);
+    }
+
+    void putInt(int record, int field, int value) {
+        chunks[record >>> CHUNK_SHIFT].putInt((record & CHUNK_MASK) * width + field * Integer.BYTES, value);
+    }
+
+    /**
+     * Returns the direct memory allocated so far.
+     */
+    long bytes() {
+        return (long) capacity * width;
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * An append-only arena of UTF-8 text kept in direct memory, outside the Java heap.
+ * Each value is addressed by a long holding its chunk in the high half and its offset in the low half.
+ * A value never spans chunks, and chunks never move, so appends never copy earlier text and readers
+ * that learned an address through their owner's volatile publish can decode it without locking.
+ * Appends must be serialized by the owner. The memory is released when the arena is no longer reachable.
+ */
+package dev.assign2.managers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class OffHeapText {
+
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int count;
+    // Bytes used in the last chunk
+    private int used;
+    private long allocated;
+
+    /**
+     * Copies bytes into the arena and returns their address. Longer values than a chunk get a chunk of their own.
+     */
+    long append(byte[] bytes, int offset, int length) {
+        if (count == 0 || chunks[count - 1].capacity() - used < length) {
+            if (count == chunks.length) chunks = Arrays.copyOf(chunks, count * 2);
+            int capacity = Math.max(CHUNK_SIZE, length);
+            chunks[count++] = ByteBuffer.allocateDirect(capacity);
+            allocated += capacity;
+            used = 0;
+        }
+        // Absolute puts leave the buffer's position alone, since readers share the buffer
+        chunks[count - 1].put(used, bytes, offset, length);
+        long address = (long) (count - 1) << 32 | used;
+        used += length;
+        return address;
+    }
+
+    String read(long address, int length) {
+        byte[] bytes = new byte[length];
+        chunks[(int) (address >>> 32)].get((int) address, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the direct memory allocated so far.
+     */
+    long bytes() {
+        return allocated;
+    }
+}
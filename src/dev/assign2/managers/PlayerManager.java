@@ -1,85 +1,700 @@
 /**
  * Manages player-related operations such as loading and displaying players.
+ * Adding a player to the store and to its team roster is one synchronized step, so concurrent writers
+ * never interleave rosters; reads and display go through lock-free snapshots of the store.
+ * Player IDs are unique: a hash index maps each ID to its row for constant-time lookup, move and removal.
+ * Loading a player whose ID is already present replaces the earlier player; {@link #addPlayer} rejects it.
+ * Names are searchable by prefix, substring and approximate spelling through an index that catches up
+ * with newly stored players when it is queried, so loading and adding pay nothing for it.
+ * Changes made after loading are recorded in the journal, if one is attached.
+ * Players can be kept off the Java heap, in which case only the indexes over them stay on it.
+ * Loads, lookups, adds and display are counted and timed in the shared {@link Metrics}.
  */
 package dev.assign2.managers;
 
+import dev.assign2.io.CsvReader;
+import dev.assign2.io.Journal;
+import dev.assign2.io.TableWriter;
 import dev.assign2.models.Player;
 import dev.assign2.models.Team;
+import dev.assign2.util.Metrics;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class PlayerManager {
-    private List<Player> players = new ArrayList<>();
+
+    // Files smaller than this are not worth splitting across threads
+    private static final long PARALLEL_THRESHOLD = 1L << 20;
+
+    private final PlayerStore store;
+    // Trimmed player ID to the player's row in the store; removed players are not in it
+    private final IdIndex rowsById;
+
+    private volatile Journal journal;
+    // Set when only some teams are loaded; an ID missing here may then belong to a player of another team
+    private volatile boolean partial;
+
+    // Player names by store row; rows only ever grow, and removed ones are skipped when searching
+    private final SearchIndex nameIndex = new SearchIndex(1);
+
+    private final Metrics.Timer loadTimer = Metrics.shared().timer("players.load");
+    private final Metrics.Timer parseTimer = Metrics.shared().timer("players.parse");
+    private final Metrics.Timer assignTimer = Metrics.shared().timer("players.assign");
+    private final Metrics.Timer ageTimer = Metrics.shared().timer("players.findByAge");
+    private final Metrics.Timer displayTimer = Metrics.shared().timer("players.display");
+    private final Metrics.Timer searchTimer = Metrics.shared().timer("players.search");
+    private final Metrics.Counter finds = Metrics.shared().counter("players.find");
+    private final Metrics.Counter findMisses = Metrics.shared().counter("players.find.miss");
+    private final Metrics.Counter adds = Metrics.shared().counter("players.add");
+
+    /**
+     * Constructs a player manager that keeps its players on the Java heap.
+     */
+    public PlayerManager() {
+        this(false);
+    }
+
+    /**
+     * Constructs a player manager.
+     *
+     * @param offHeap whether to keep players as fixed-width records in direct memory outside the Java heap,
+     *                see {@link PlayerStore#offHeap()}
+     */
+    public PlayerManager(boolean offHeap) {
+        this.store = offHeap ? PlayerStore.offHeap() : new PlayerStore();
+        this.rowsById = new IdIndex(row -> key(store.playerId(row)));
+    }
+
+    /**
+     * Returns the number of bytes of direct memory holding players; always 0 for a heap manager.
+     *
+     * @return allocated off-heap bytes
+     */
+    public long getOffHeapBytes() {
+        return store.offHeapBytes();
+    }
 
     /**
      * Loads players from a CSV file and assigns them to the corresponding teams.
      *
-     * @param csvFilePath the path to the CSV file containing player data
+     * @param csvFilePath the path to the CSV file containing player data, optionally gzip-compressed
      * @param teamManager the TeamManager instance used to assign players to teams
      * @throws Exception if the file is not found or has an invalid format
      */
     public void loadPlayers(String csvFilePath, TeamManager teamManager) throws Exception {
-        try (BufferedReader buff = new BufferedReader(new FileReader(csvFilePath))) {
-            String line = buff.readLine();
-            if (line == null) throw new Exception("Empty CSV file: " + csvFilePath);
-            int numCols = line.split(",").length;
-
-            // Process the first line as data and then remaining lines
-            do {
-                String[] fields = line.split(",");
-                if (fields.length != numCols) {
-                    throw new Exception("Invalid CSV format for players. Expected " + numCols + " columns.");
-                }
-                String playerId = fields[0];
-                String name = fields[1];
-                int age = Integer.parseInt(fields[2]);
-                String teamName = fields[3];
-                String position = fields[4];
+        Metrics.Sample sample = loadTimer.start();
+        int rows;
+        try {
+            // The first line is data too; its width is the expected width of every row
+            rows = CsvReader.read(Path.of(csvFilePath), row -> {
+                checkWidth(row);
+                String teamName = row.getString(3);
+                // Assign player to the correct team
+                store(row.getString(0), row.getString(1), row.getInt(2), teamName, row.getString(4),
+                        teamManager.lookup(teamName), teamManager);
+            });
+        } catch (NoSuchFileException e) {
+            throw new Exception("File not found: " + csvFilePath);
+        } catch (IOException | NumberFormatException e) {
+            throw new Exception("Error processing players file.");
+        }
+        sample.stop(rows);
+        if (rows == 0) throw new Exception("Empty CSV file: " + csvFilePath);
+    }
 
-                Player player = new Player(playerId, name, age, teamName, position);
+    /**
+     * Loads players from a CSV file by parsing line-aligned chunks of it in parallel on the common
+     * ForkJoinPool. Players are added to the list and to their team rosters in original file order.
+     * Small and compressed files are loaded sequentially. Quoted fields must not contain line breaks.
+     *
+     * @param csvFilePath the path to the CSV file containing player data, optionally gzip-compressed
+     * @param teamManager the TeamManager instance used to assign players to teams
+     * @throws Exception if the file is not found or has an invalid format
+     */
+    public void loadPlayersParallel(String csvFilePath, TeamManager teamManager) throws Exception {
+        addLoadedPlayers(readPlayers(csvFilePath), teamManager);
+    }
 
-                // Assign player to the correct team
-                Team team = teamManager.findTeam(teamName);
-                if (team != null) {
-                    team.addPlayer(player);
+    /**
+     * Parses players from a CSV file without assigning them to teams, so parsing can run before
+     * or alongside team loading. Large files are parsed in parallel chunks as in {@link #loadPlayersParallel}.
+     *
+     * @param csvFilePath the path to the CSV file containing player data, optionally gzip-compressed
+     * @return a store holding the parsed players in file order
+     * @throws Exception if the file is not found or has an invalid format
+     */
+    public PlayerStore readPlayers(String csvFilePath) throws Exception {
+        Metrics.Sample sample = parseTimer.start();
+        Path path = Path.of(csvFilePath);
+        PlayerStore loaded = new PlayerStore();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (CsvReader.isCompressed(path)) {
+                // A compressed stream cannot be split, but it is inflated on another thread while this one parses
+                CsvReader.read(path, row -> addRow(loaded, row));
+            } else if (channel.size() < PARALLEL_THRESHOLD) {
+                CsvReader.read(channel, row -> addRow(loaded, row));
+            } else {
+                int parallelism = ForkJoinPool.commonPool().getParallelism();
+                long[] bounds = CsvReader.lineAlignedChunks(channel, Math.max(1, parallelism * 4));
+                ChunkResult[] results = new ChunkResult[bounds.length - 1];
+                ForkJoinPool.commonPool().invoke(new ChunkTask(channel, bounds, results, 0, results.length));
+
+                int expected = results[0].width;
+                for (ChunkResult result : results) {
+                    if (result.width != 0 && result.width != expected) {
+                        throw new Exception("Invalid CSV format for players. Expected " + expected + " columns.");
+                    }
+                }
+                for (ChunkResult result : results) {
+                    loaded.addAll(result.players);
                 }
-                players.add(player);
-            } while ((line = buff.readLine()) != null);
-        } catch (FileNotFoundException e) {
+            }
+        } catch (NoSuchFileException e) {
             throw new Exception("File not found: " + csvFilePath);
+        } catch (CompletionException e) {
+            // Row-level failures are thrown from inside the fork/join tasks, possibly re-wrapped by the pool
+            Throwable cause = e;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Error error) throw error;
+            if (cause instanceof Exception exception && !(cause instanceof IOException)
+                    && !(cause instanceof NumberFormatException)) {
+                throw exception;
+            }
+            throw new Exception("Error processing players file.");
         } catch (IOException | NumberFormatException e) {
             throw new Exception("Error processing players file.");
         }
+        sample.stop(loaded.size());
+        if (loaded.size() == 0) throw new Exception("Empty CSV file: " + csvFilePath);
+        return loaded;
     }
 
+    /**
+     * Adds already parsed players to the list and to their team rosters, keeping their order.
+     *
+     * @param loaded      the players to add
+     * @param teamManager the TeamManager instance used to assign players to teams
+     */
+    public synchronized void addLoadedPlayers(List<Player> loaded, TeamManager teamManager) {
+        for (Player player : loaded) {
+            store(player.getPlayerId(), player.getName(), player.getAge(), player.getTeamName(), player.getPosition(),
+                    teamManager.lookup(player.getTeamName()), teamManager);
+        }
+    }
 
+    /**
+     * Adds a single player to the list and to its team's roster as one step.
+     *
+     * @param player      the player to add; a copy is stored
+     * @param teamManager the TeamManager instance used to find the player's team
+     * @return the stored player, or null if the team does not exist and nothing was added
+     * @throws IllegalStateException if a player with the same ID exists, or only some teams are loaded;
+     *                               nothing was added
+     * @throws UncheckedIOException  if the change was made but could not be recorded in the journal
+     */
+    public Player addPlayer(Player player, TeamManager teamManager) {
+        if (partial) throw new IllegalStateException("Players cannot be added while only some teams are loaded");
+        Player stored;
+        long sequence;
+        synchronized (this) {
+            // Checked under the lock, so of two concurrent adds of one ID exactly one succeeds
+            if (player.getPlayerId() != null && rowsById.get(key(player.getPlayerId())) >= 0) {
+                throw new IllegalStateException("Player already exists: " + player.getPlayerId());
+            }
+            Team team = teamManager.lookup(player.getTeamName());
+            if (team == null || player.getPlayerId() == null) return null;
+            stored = store(player.getPlayerId(), player.getName(), player.getAge(), player.getTeamName(),
+                    player.getPosition(), team, teamManager);
+            adds.increment();
+            sequence = log(Journal.PUT_PLAYER, fields(stored));
+        }
+        awaitLog(sequence);
+        return stored;
+    }
+
+    /**
+     * Adds a player, replacing any player with the same ID in the list and in its team's roster.
+     *
+     * @param player      the player to add; a copy is stored
+     * @param teamManager the TeamManager instance used to find the player's team
+     * @return the stored player, or null if the team does not exist and nothing was changed
+     * @throws UncheckedIOException if the change was made but could not be recorded in the journal
+     */
+    public Player putPlayer(Player player, TeamManager teamManager) {
+        Player stored;
+        long sequence;
+        synchronized (this) {
+            Team team = teamManager.lookup(player.getTeamName());
+            if (team == null || player.getPlayerId() == null) return null;
+            stored = store(player.getPlayerId(), player.getName(), player.getAge(), player.getTeamName(),
+                    player.getPosition(), team, teamManager);
+            adds.increment();
+            sequence = log(Journal.PUT_PLAYER, fields(stored));
+        }
+        awaitLog(sequence);
+        return stored;
+    }
+
+    /**
+     * Finds a player by ID.
+     *
+     * @param playerId the ID to search for; surrounding spaces are ignored
+     * @return the player, or null if no player has the ID
+     */
+    public Player findPlayer(String playerId) {
+        finds.increment();
+        int row = playerId != null ? rowsById.get(key(playerId)) : -1;
+        if (row < 0) {
+            findMisses.increment();
+            return null;
+        }
+        return store.view(row);
+    }
+
+    /**
+     * Moves a player to another team, updating both rosters.
+     *
+     * @param playerId    the ID of the player to move
+     * @param teamName    the name of the new team
+     * @param teamManager the TeamManager instance used to find both teams
+     * @return true if the player was moved; false if the player or the new team does not exist
+     * @throws UncheckedIOException if the change was made but could not be recorded in the journal
+     */
+    public boolean movePlayer(String playerId, String teamName, TeamManager teamManager) {
+        long sequence;
+        synchronized (this) {
+            int row = playerId != null ? rowsById.get(key(playerId)) : -1;
+            Team newTeam = teamManager.lookup(teamName);
+            if (row < 0 || newTeam == null) return false;
+            Player player = store.view(row);
+            Team oldTeam = teamManager.lookup(store.teamName(row));
+            if (oldTeam == newTeam) return true;
+            if (oldTeam != null) {
+                oldTeam.removePlayer(player);
+            }
+            store.setTeam(row, newTeam.getTeamName());
+            newTeam.addPlayer(player);
+            sequence = log(Journal.MOVE_PLAYER, player.getPlayerId(), newTeam.getTeamName());
+        }
+        awaitLog(sequence);
+        return true;
+    }
+
+    /**
+     * Removes a player from the list and from its team's roster.
+     *
+     * @param playerId    the ID of the player to remove
+     * @param teamManager the TeamManager instance used to find the player's team
+     * @return true if the player was removed; false if no player has the ID
+     * @throws UncheckedIOException if the change was made but could not be recorded in the journal
+     */
+    public boolean removePlayer(String playerId, TeamManager teamManager) {
+        long sequence;
+        synchronized (this) {
+            int row = playerId != null ? rowsById.remove(key(playerId)) : -1;
+            if (row < 0) return false;
+            discard(row, teamManager);
+            sequence = log(Journal.REMOVE_PLAYER, store.playerId(row));
+        }
+        awaitLog(sequence);
+        return true;
+    }
+
+    /**
+     * Removes a player whose row was deleted from the players file while running.
+     * Nothing is journaled, since the file already records the removal.
+     *
+     * @param playerId    the ID of the player to remove
+     * @param teamManager the TeamManager instance used to find the player's team
+     * @return true if the player was removed; false if no player has the ID
+     */
+    public synchronized boolean removeLoadedPlayer(String playerId, TeamManager teamManager) {
+        int row = playerId != null ? rowsById.remove(key(playerId)) : -1;
+        if (row < 0) return false;
+        discard(row, teamManager);
+        return true;
+    }
+
+    /**
+     * Adds a batch of new players like {@link #addLoadedPlayers(PlayerStore, TeamManager)} and records all of
+     * them in the journal, if one is attached, with a single commit.
+     *
+     * @param batch       the players to add
+     * @param teamManager the TeamManager instance used to assign players to teams
+     * @return the number of players replaced by a player with the same ID
+     * @throws IllegalStateException if the batch is not empty and only some teams are loaded; nothing was added
+     * @throws UncheckedIOException  if the players were added but could not be recorded
+     */
+    public int importPlayers(PlayerStore batch, TeamManager teamManager) {
+        if (partial && batch.size() > 0) {
+            throw new IllegalStateException("Players cannot be added while only some teams are loaded");
+        }
+        int replaced;
+        long sequence = 0;
+        synchronized (this) {
+            replaced = addLoadedPlayers(batch, teamManager);
+            adds.add(batch.size());
+            Journal log = journal;
+            if (log != null) {
+                List<String[]> records = new ArrayList<>(batch.size());
+                for (int row = 0; row < batch.size(); row++) {
+                    records.add(fields(batch.view(row)));
+                }
+                try {
+                    sequence = log.enqueueAll(Journal.PUT_PLAYER, records);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        awaitLog(sequence);
+        return replaced;
+    }
+
+    /**
+     * Attaches a journal that records every player change from now on. Attach it after loading and replaying.
+     *
+     * @param journal the journal to append to, or null to stop recording
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Marks the manager as holding only some teams' players. New players are then refused, since their IDs
+     * cannot be checked against the players of teams that are not loaded.
+     *
+     * @param partial true if only some teams are loaded
+     */
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * Returns whether only some teams' players are loaded, in which case new players are refused.
+     *
+     * @return true if only some teams are loaded
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Adds players parsed by {@link #readPlayers} to the list and to their team rosters, keeping their order.
+     * Each distinct team name is looked up only once, and each roster is extended once.
+     * A player whose ID is already present, or appears again later in the batch, replaces the earlier one.
+     *
+     * @param loaded      the players to add
+     * @param teamManager the TeamManager instance used to assign players to teams
+     * @return the number of players replaced by a player with the same ID
+     */
+    public synchronized int addLoadedPlayers(PlayerStore loaded, TeamManager teamManager) {
+        Metrics.Sample sample = assignTimer.start();
+        SymbolTable symbols = SymbolTable.shared();
+        Team[] teamsByCode = new Team[symbols.size()];
+        boolean[] resolved = new boolean[teamsByCode.length];
+        Map<Team, List<Player>> rosters = new LinkedHashMap<>();
+        // The index grows once for the whole batch instead of rehashing as it fills
+        rowsById.ensureCapacity(rowsById.size() + loaded.size());
+        int first = store.addAll(loaded);
+        int replaced = 0;
+        for (int row = 0; row < loaded.size(); row++) {
+            int old = rowsById.put(key(loaded.playerId(row)), first + row);
+            if (old >= 0) {
+                discard(old, teamManager);
+                replaced++;
+            }
+        }
+        for (int row = 0; row < loaded.size(); row++) {
+            if (store.isRemoved(first + row)) continue;
+            int code = loaded.teamCode(row);
+            if (!resolved[code]) {
+                teamsByCode[code] = teamManager.lookup(symbols.value(code));
+                resolved[code] = true;
+            }
+            if (teamsByCode[code] != null) {
+                rosters.computeIfAbsent(teamsByCode[code], team -> new ArrayList<>()).add(store.view(first + row));
+            }
+        }
+        rosters.forEach(Team::addPlayers);
+        sample.stop(loaded.size());
+        return replaced;
+    }
+
+    /**
+     * Finds all players whose age lies in the given range.
+     *
+     * @param minAge the lowest matching age, inclusive
+     * @param maxAge the highest matching age, inclusive
+     * @return the matching players in load order
+     */
+    public List<Player> findPlayersByAge(int minAge, int maxAge) {
+        Metrics.Sample sample = ageTimer.start();
+        int[] rows = store.rowsWithAgeBetween(minAge, maxAge);
+        List<Player> found = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            found.add(store.view(row));
+        }
+        sample.stop(found.size());
+        return found;
+    }
+
+    /**
+     * Searches player names for a query, tolerating a typo or two in longer queries.
+     * Exact names rank first, then names or words starting with the query, names containing it,
+     * and finally names within a small edit distance of it.
+     *
+     * @param query the text to search for; case and punctuation are ignored
+     * @param limit the most players to return
+     * @return the best matching players, best first
+     */
+    public List<Player> searchPlayers(String query, int limit) {
+        Metrics.Sample sample = searchTimer.start();
+        int[] rows;
+        synchronized (nameIndex) {
+            for (int row = nameIndex.documentCount(); row < store.size(); row++) {
+                nameIndex.add(row, store.name(row));
+            }
+            rows = nameIndex.search(query, limit, row -> !store.isRemoved(row));
+        }
+        List<Player> found = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            found.add(store.view(row));
+        }
+        sample.stop(found.size());
+        return found;
+    }
+
+    /**
+     * Appends a player to the store and then to its team's roster, replacing any player with the same ID.
+     *
+     * @param playerId    the player's ID
+     * @param name        the player's name
+     * @param age         the player's age
+     * @param teamName    the name of the player's team
+     * @param position    the player's position
+     * @param team        the team to add the player to, or null to store the player only
+     * @param teamManager the TeamManager instance used to find a replaced player's team
+     * @return the stored player
+     */
+    private synchronized Player store(String playerId, String name, int age, String teamName, String position,
+                                      Team team, TeamManager teamManager) {
+        int row = store.add(playerId, name, age, teamName, position);
+        int old = rowsById.put(key(playerId), row);
+        if (old >= 0) {
+            discard(old, teamManager);
+        }
+        Player stored = store.view(row);
+        if (team != null) {
+            team.addPlayer(stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Marks a row as removed and takes its player off its team's roster. The ID index is not changed.
+     *
+     * @param row         the row to remove
+     * @param teamManager the TeamManager instance used to find the player's team
+     */
+    private void discard(int row, TeamManager teamManager) {
+        store.remove(row);
+        Team team = teamManager.lookup(store.teamName(row));
+        if (team != null) {
+            team.removePlayer(store.view(row));
+        }
+    }
+
+    private static String key(String playerId) {
+        return playerId.trim();
+    }
+
+    private static String[] fields(Player player) {
+        return new String[]{player.getPlayerId(), player.getName(), String.valueOf(player.getAge()),
+                player.getTeamName(), player.getPosition()};
+    }
+
+    /**
+     * Queues a journal record, if a journal is attached. Called while holding the manager's lock,
+     * so records are queued in the order the changes were made.
+     *
+     * @return the record's sequence number, or 0 if nothing was queued
+     */
+    private long log(byte type, String... fields) {
+        Journal log = journal;
+        if (log == null) return 0;
+        try {
+            return log.enqueue(type, fields);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits for a queued journal record to reach the disk. Called after releasing the manager's lock,
+     * so other writers can queue records that are then committed together.
+     */
+    private void awaitLog(long sequence) {
+        Journal log = journal;
+        if (sequence == 0 || log == null) return;
+        try {
+            log.await(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores a player from a CSV row, checking the row has the same width as the first row.
+     *
+     * @param target the store to add the player to
+     * @param row    the current CSV row
+     * @throws Exception if the row has the wrong number of columns
+     */
+    private static void addRow(PlayerStore target, CsvReader.Row row) throws Exception {
+        checkWidth(row);
+        String playerId = row.getString(0);
+        String name = row.getString(1);
+        int age = row.getInt(2);
+        String teamName = row.getString(3);
+        String position = row.getString(4);
+
+        target.add(playerId, name, age, teamName, position);
+    }
+
+    /**
+     * Checks that a CSV row has the same number of columns as the first row.
+     *
+     * @param row the current CSV row
+     * @throws Exception if the row has the wrong number of columns
+     */
+    private static void checkWidth(CsvReader.Row row) throws Exception {
+        if (row.size() != row.expectedSize()) {
+            throw new Exception("Invalid CSV format for players. Expected " + row.expectedSize() + " columns.");
+        }
+    }
 
     /**
      * Displays all loaded players in a formatted table.
      */
     public void displayPlayers() {
-        System.out.println("--------------------------------------------------------------------------------");
-        System.out.printf("%-6s %-18s %-4s %-12s %-18s%n", "ID", "Player", "Age", "Team", "Position");
-        System.out.println("---------------------------------------------------------------------------------");
+        try {
+            displayPlayers(TableWriter.standardOut(), 0, Integer.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a page of the players table, reading straight from the player columns.
+     *
+     * @param out     the destination, for example standard output or a file
+     * @param first   the index of the first player to write
+     * @param maxRows the maximum number of players to write
+     * @return the number of players written
+     * @throws IOException if the destination cannot be written
+     */
+    public int displayPlayers(Writer out, int first, int maxRows) throws IOException {
+        Metrics.Sample sample = displayTimer.start();
+        TableWriter table = new TableWriter(out, 6, 18, 4, 12, 18);
+        table.line("--------------------------------------------------------------------------------");
+        table.header("ID", "Player", "Age", "Team", "Position");
+        table.line("---------------------------------------------------------------------------------");
 
-        for (Player player : players) {
-            System.out.printf("%-6s %-18s %-4d %-12s %-18s%n",
-                    player.getPlayerId(),
-                    player.getName(),
-                    player.getAge(),
-                    player.getTeamName(),
-                    player.getPosition());
+        // The live rows are fixed up front, so the page stays consistent while players are added or removed
+        PlayerStore.Rows rows = store.rows();
+        int end = (int) Math.min(rows.size(), (long) first + maxRows);
+        for (int i = Math.max(0, first); i < end; i++) {
+            int row = rows.row(i);
+            table.cell(store.playerId(row))
+                    .cell(store.name(row))
+                    .cell(store.age(row))
+                    .cell(store.teamName(row))
+                    .cell(store.position(row))
+                    .endRow();
         }
+        table.flush();
+        int written = Math.max(0, end - Math.max(0, first));
+        sample.stop(written);
+        return written;
     }
 
+    /**
+     * Returns all players in load order, as stored at the time of the call.
+     * Use {@link #addPlayer}, {@link #movePlayer} and {@link #removePlayer} to change them.
+     *
+     * @return an unmodifiable snapshot of the players
+     */
     public List<Player> getPlayers() {
-        return players;
+        return store.snapshot();
     }
-}
 
+    /**
+     * Players parsed from one chunk and the width of the chunk's first row.
+     */
+    private static final class ChunkResult {
+        private final PlayerStore players = new PlayerStore();
+        private int width;
+    }
+
+    /**
+     * Splits a range of chunks in half until a single chunk remains, then parses it.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized
+        private final transient FileChannel channel;
+        private final long[] bounds;
+        private final transient ChunkResult[] results;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, long[] bounds, ChunkResult[] results, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(channel, bounds, results, from, mid),
+                        new ChunkTask(channel, bounds, results, mid, to));
+                return;
+            }
+            ChunkResult result = new ChunkResult();
+            try {
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, bounds[from], bounds[from + 1] - bounds[from]);
+                CsvReader.read(chunk, row -> {
+                    addRow(result.players, row);
+                    result.width = row.expectedSize();
+                });
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            results[from] = result;
+        }
+    }
+}
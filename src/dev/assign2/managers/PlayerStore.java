@@ -0,0 +1,690 @@
+/**
+ * Column-oriented storage for players.
+ * Ages, team codes and position codes live in parallel int arrays, team names and positions are
+ * encoded as IDs in the shared {@link SymbolTable}, and IDs and names are packed into one UTF-8 byte arena. Callers see rows
+ * through lightweight {@link Player} views, so the store keeps no per-player Strings on the heap; an ID or name is
+ * decoded only when a view is asked for it.
+ * An off-heap store keeps the same values as fixed-width records and a text arena in direct memory instead.
+ * Writers are serialized and publish the columns together with the row count after every change;
+ * readers take that published state without locking and only ever see complete rows.
+ * Removing a player marks its row as removed instead of moving other rows, so row numbers stay stable.
+ */
+package dev.assign2.managers;
+
+import dev.assign2.models.Player;
+
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+public final class PlayerStore {
+
+    // Fields of an off-heap record; the text address is split into the arena chunk and the offset in it
+    private static final int AGE = 0;
+    private static final int TEAM = 1;
+    private static final int POSITION = 2;
+    private static final int REMOVED = 3;
+    private static final int TEXT_CHUNK = 4;
+    private static final int TEXT_OFFSET = 5;
+    private static final int ID_LENGTH = 6;
+    private static final int NAME_LENGTH = 7;
+    private static final int FIELDS = 8;
+
+    // Writer-side state, only touched while holding the store's monitor
+    private final Storage storage;
+    private int size;
+    private int removedCount;
+
+    // Reader-side state: the columns and row count as of the last completed write
+    private volatile Columns columns;
+
+    private final SymbolTable symbols = SymbolTable.shared();
+
+    /**
+     * Constructs an empty store on the Java heap.
+     */
+    public PlayerStore() {
+        this(new HeapStorage());
+    }
+
+    private PlayerStore(Storage storage) {
+        this.storage = storage;
+        this.columns = storage.publish(0, 0);
+    }
+
+    /**
+     * Creates an empty store that keeps its rows in direct memory outside the Java heap: each row is a
+     * fixed-width record and IDs and names go to an off-heap text arena, so the garbage collector never
+     * scans the rows. Views handed out still live on the heap, and a player on a team roster keeps its
+     * view and roster entry there, about 100 bytes per player. Direct memory is limited by
+     * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+     *
+     * @return an empty off-heap store
+     */
+    public static PlayerStore offHeap() {
+        return new PlayerStore(new OffHeapStorage());
+    }
+
+    /**
+     * Appends a player and returns its row number.
+     *
+     * @param playerId the player's ID
+     * @param name     the player's name
+     * @param age      the player's age
+     * @param teamName the name of the player's team
+     * @param position the player's position
+     * @return the row the player was stored in
+     */
+    public synchronized int add(String playerId, String name, int age, String teamName, String position) {
+        int row = size;
+        storage.add(row, age, symbols.id(teamName), symbols.id(position),
+                playerId.getBytes(StandardCharsets.UTF_8), name.getBytes(StandardCharsets.UTF_8));
+        size++;
+        publish();
+        return row;
+    }
+
+    /**
+     * Appends a copy of a player and returns its row number.
+     *
+     * @param player the player to copy
+     * @return the row the player was stored in
+     */
+    public int add(Player player) {
+        return add(player.getPlayerId(), player.getName(), player.getAge(), player.getTeamName(), player.getPosition());
+    }
+
+    /**
+     * Appends every row of another store, keeping their order. Rows of a heap store are copied in bulk.
+     *
+     * @param other the store to copy rows from
+     * @return the row number of the first copied row
+     */
+    public synchronized int addAll(PlayerStore other) {
+        Columns source = other.columns;
+        int first = size;
+        storage.addAll(first, source);
+        size += source.size;
+        removedCount += source.removedCount;
+        publish();
+        return first;
+    }
+
+    /**
+     * Marks a row as removed. Its values stay readable through existing views, but it is left out of
+     * snapshots, scans and {@link #liveCount()}.
+     *
+     * @param row the row number
+     * @return true if the row was live before
+     */
+    public synchronized boolean remove(int row) {
+        checkRow(row);
+        if (columns.removed(row)) return false;
+        storage.setRemoved(row);
+        removedCount++;
+        publish();
+        return true;
+    }
+
+    /**
+     * Changes the team of the player in a row. The change is visible through existing views.
+     *
+     * @param row      the row number
+     * @param teamName the name of the new team
+     */
+    public synchronized void setTeam(int row, String teamName) {
+        checkRow(row);
+        storage.setTeamCode(row, symbols.id(teamName));
+        publish();
+    }
+
+    /**
+     * Returns whether a row has been removed.
+     *
+     * @param row the row number
+     * @return true if the row is removed
+     */
+    public boolean isRemoved(int row) {
+        return columns.removed(row);
+    }
+
+    /**
+     * Returns the number of stored rows, including removed ones. Row numbers run from 0 to this value.
+     *
+     * @return row count
+     */
+    public int size() {
+        return columns.size;
+    }
+
+    /**
+     * Returns the number of players that have not been removed.
+     *
+     * @return live player count
+     */
+    public int liveCount() {
+        Columns current = columns;
+        return current.size - current.removedCount;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory the store has allocated; always 0 for a heap store.
+     *
+     * @return allocated off-heap bytes
+     */
+    public long offHeapBytes() {
+        synchronized (this) {
+            return storage.offHeapBytes();
+        }
+    }
+
+    /**
+     * Returns a view of the player in a row. Views are cheap and read straight from the columns.
+     *
+     * @param row the row number
+     * @return a Player view of the row
+     */
+    public Player view(int row) {
+        checkRow(row);
+        return new PlayerView(this, row);
+    }
+
+    /**
+     * Returns the rows of all players whose age lies in the given range, scanning only the age column.
+     *
+     * @param minAge the lowest matching age, inclusive
+     * @param maxAge the highest matching age, inclusive
+     * @return matching row numbers in ascending order
+     */
+    public int[] rowsWithAgeBetween(int minAge, int maxAge) {
+        Columns current = columns;
+        int[] rows = new int[16];
+        int count = 0;
+        for (int i = 0; i < current.size; i++) {
+            int age = current.age(i);
+            if (age >= minAge && age <= maxAge && !current.removed(i)) {
+                if (count == rows.length) rows = Arrays.copyOf(rows, count * 2);
+                rows[count++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Returns an unmodifiable list of the players stored at this moment. Rows added or removed later
+     * do not change it.
+     *
+     * @return a snapshot list of player views
+     */
+    public List<Player> snapshot() {
+        return rows();
+    }
+
+    /**
+     * Returns the live rows at this moment as a list that also maps list indexes to row numbers.
+     * Without removals this is just a count; otherwise the live row numbers are collected once per change.
+     */
+    Rows rows() {
+        while (true) {
+            Columns current = columns;
+            if (current.removedCount == 0) return new Rows(null, current.size);
+            int[] live = current.liveRows;
+            if (live != null) return new Rows(live, live.length);
+            synchronized (this) {
+                // Only the current state may be scanned, since later removals write to the same storage
+                if (current == columns) {
+                    live = new int[current.size - current.removedCount];
+                    int count = 0;
+                    for (int row = 0; row < current.size; row++) {
+                        if (!current.removed(row)) live[count++] = row;
+                    }
+                    current.liveRows = live;
+                    return new Rows(live, live.length);
+                }
+            }
+        }
+    }
+
+    String playerId(int row) {
+        return columns.playerId(row);
+    }
+
+    String name(int row) {
+        return columns.name(row);
+    }
+
+    int age(int row) {
+        return columns.age(row);
+    }
+
+    String teamName(int row) {
+        return symbols.value(columns.teamCode(row));
+    }
+
+    int teamCode(int row) {
+        return columns.teamCode(row);
+    }
+
+    String position(int row) {
+        return symbols.value(columns.positionCode(row));
+    }
+
+    private void publish() {
+        columns = storage.publish(size, removedCount);
+    }
+
+    private void checkRow(int row) {
+        int count = size();
+        if (row < 0 || row >= count) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + count);
+        }
+    }
+
+    /**
+     * The writer side of the store's rows. Called only while holding the store's monitor.
+     */
+    private abstract static class Storage {
+        abstract void add(int row, int age, int teamCode, int positionCode, byte[] playerId, byte[] name);
+
+        /**
+         * Appends every row of a published state, starting at the given row.
+         */
+        void addAll(int row, Columns source) {
+            for (int i = 0; i < source.size; i++) {
+                add(row + i, source.age(i), source.teamCode(i), source.positionCode(i),
+                        source.playerId(i).getBytes(StandardCharsets.UTF_8),
+                        source.name(i).getBytes(StandardCharsets.UTF_8));
+                if (source.removed(i)) setRemoved(row + i);
+            }
+        }
+
+        abstract void setRemoved(int row);
+
+        abstract void setTeamCode(int row, int teamCode);
+
+        abstract Columns publish(int size, int removedCount);
+
+        long offHeapBytes() {
+            return 0;
+        }
+    }
+
+    /**
+     * The rows as of one completed write. Rows below size are only changed by a move or a removal,
+     * and growing never changes them where a published state can see them, so a published state stays readable.
+     */
+    private abstract static class Columns {
+        final int size;
+        final int removedCount;
+        // Live row numbers, filled in on first use while this state is still current
+        volatile int[] liveRows;
+
+        Columns(int size, int removedCount) {
+            this.size = size;
+            this.removedCount = removedCount;
+        }
+
+        abstract int age(int row);
+
+        abstract int teamCode(int row);
+
+        abstract int positionCode(int row);
+
+        abstract boolean removed(int row);
+
+        abstract String playerId(int row);
+
+        abstract String name(int row);
+    }
+
+    /**
+     * Ages, team codes and position codes in parallel int arrays and IDs and names packed into one byte array.
+     */
+    private static final class HeapStorage extends Storage {
+        private int[] ages = new int[16];
+        private int[] teamCodes = new int[16];
+        private int[] positionCodes = new int[16];
+        // Row i's ID is text[textOffsets[2i], textOffsets[2i+1]); its name runs up to textOffsets[2i+2]
+        private int[] textOffsets = new int[33];
+        private byte[] text = new byte[256];
+        private int textLength;
+        private boolean[] removed = new boolean[16];
+
+        @Override
+        void add(int row, int age, int teamCode, int positionCode, byte[] playerId, byte[] name) {
+            if (row == ages.length) grow(ages.length * 2);
+            ages[row] = age;
+            teamCodes[row] = teamCode;
+            positionCodes[row] = positionCode;
+            appendText(playerId);
+            textOffsets[2 * row + 1] = textLength;
+            appendText(name);
+            textOffsets[2 * row + 2] = textLength;
+        }
+
+        @Override
+        void addAll(int row, Columns columns) {
+            if (!(columns instanceof HeapColumns source)) {
+                super.addAll(row, columns);
+                return;
+            }
+            int count = source.size;
+            int sourceTextLength = source.textOffsets[2 * count];
+            int needed = row + count;
+            if (needed > ages.length) grow(Integer.highestOneBit(needed) << 1);
+            System.arraycopy(source.ages, 0, ages, row, count);
+            System.arraycopy(source.teamCodes, 0, teamCodes, row, count);
+            System.arraycopy(source.positionCodes, 0, positionCodes, row, count);
+            System.arraycopy(source.removed, 0, removed, row, count);
+            if (textLength + sourceTextLength > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + sourceTextLength));
+            }
+            System.arraycopy(source.text, 0, text, textLength, sourceTextLength);
+            for (int i = 1; i <= 2 * count; i++) {
+                textOffsets[2 * row + i] = source.textOffsets[i] + textLength;
+            }
+            textLength += sourceTextLength;
+        }
+
+        @Override
+        void setRemoved(int row) {
+            removed[row] = true;
+        }
+
+        @Override
+        void setTeamCode(int row, int teamCode) {
+            teamCodes[row] = teamCode;
+        }
+
+        @Override
+        Columns publish(int size, int removedCount) {
+            return new HeapColumns(ages, teamCodes, positionCodes, textOffsets, text, removed, size, removedCount);
+        }
+
+        private void appendText(byte[] bytes) {
+            if (textLength + bytes.length > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + bytes.length));
+            }
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            textLength += bytes.length;
+        }
+
+        private void grow(int capacity) {
+            ages = Arrays.copyOf(ages, capacity);
+            teamCodes = Arrays.copyOf(teamCodes, capacity);
+            positionCodes = Arrays.copyOf(positionCodes, capacity);
+            textOffsets = Arrays.copyOf(textOffsets, 2 * capacity + 1);
+            removed = Arrays.copyOf(removed, capacity);
+        }
+    }
+
+    /**
+     * The heap arrays as of one completed write; a later grow copies them into new arrays.
+     */
+    private static final class HeapColumns extends Columns {
+        final int[] ages;
+        final int[] teamCodes;
+        final int[] positionCodes;
+        final int[] textOffsets;
+        final byte[] text;
+        final boolean[] removed;
+
+        HeapColumns(int[] ages, int[] teamCodes, int[] positionCodes, int[] textOffsets, byte[] text,
+                    boolean[] removed, int size, int removedCount) {
+            super(size, removedCount);
+            this.ages = ages;
+            this.teamCodes = teamCodes;
+            this.positionCodes = positionCodes;
+            this.textOffsets = textOffsets;
+            this.text = text;
+            this.removed = removed;
+        }
+
+        @Override
+        int age(int row) {
+            return ages[row];
+        }
+
+        @Override
+        int teamCode(int row) {
+            return teamCodes[row];
+        }
+
+        @Override
+        int positionCode(int row) {
+            return positionCodes[row];
+        }
+
+        @Override
+        boolean removed(int row) {
+            return removed[row];
+        }
+
+        @Override
+        String playerId(int row) {
+            return decode(textOffsets[2 * row], textOffsets[2 * row + 1]);
+        }
+
+        @Override
+        String name(int row) {
+            return decode(textOffsets[2 * row + 1], textOffsets[2 * row + 2]);
+        }
+
+        private String decode(int start, int end) {
+            return new String(text, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * One fixed-width off-heap record per row, with the row's ID followed by its name in an off-heap text arena.
+     */
+    private static final class OffHeapStorage extends Storage {
+        private final OffHeapRecords records = new OffHeapRecords(FIELDS);
+        private final OffHeapText text = new OffHeapText();
+
+        @Override
+        void add(int row, int age, int teamCode, int positionCode, byte[] playerId, byte[] name) {
+            byte[] both = Arrays.copyOf(playerId, playerId.length + name.length);
+            System.arraycopy(name, 0, both, playerId.length, name.length);
+            put(row, age, teamCode, positionCode, text.append(both, 0, both.length), playerId.length, name.length);
+        }
+
+        @Override
+        void addAll(int row, Columns columns) {
+            if (!(columns instanceof HeapColumns source)) {
+                super.addAll(row, columns);
+                return;
+            }
+            // A heap store's text is already each ID followed by its name, so it goes into the arena in one piece
+            int count = source.size;
+            if (count == 0) return;
+            long base = text.append(source.text, 0, source.textOffsets[2 * count]);
+            records.ensureCapacity(row + count);
+            for (int i = 0; i < count; i++) {
+                int start = source.textOffsets[2 * i];
+                int middle = source.textOffsets[2 * i + 1];
+                put(row + i, source.ages[i], source.teamCodes[i], source.positionCodes[i], base + start,
+                        middle - start, source.textOffsets[2 * i + 2] - middle);
+                if (source.removed[i]) setRemoved(row + i);
+            }
+        }
+
+        private void put(int row, int age, int teamCode, int positionCode, long address, int idLength, int nameLength) {
+            records.ensureCapacity(row + 1);
+            records.putInt(row, AGE, age);
+            records.putInt(row, TEAM, teamCode);
+            records.putInt(row, POSITION, positionCode);
+            records.putInt(row, REMOVED, 0);
+            records.putInt(row, TEXT_CHUNK, (int) (address >>> 32));
+            records.putInt(row, TEXT_OFFSET, (int) address);
+            records.putInt(row, ID_LENGTH, idLength);
+            records.putInt(row, NAME_LENGTH, nameLength);
+        }
+
+        @Override
+        void setRemoved(int row) {
+            records.putInt(row, REMOVED, 1);
+        }
+
+        @Override
+        void setTeamCode(int row, int teamCode) {
+            records.putInt(row, TEAM, teamCode);
+        }
+
+        @Override
+        Columns publish(int size, int removedCount) {
+            return new OffHeapColumns(records, text, size, removedCount);
+        }
+
+        @Override
+        long offHeapBytes() {
+            return records.bytes() + text.bytes();
+        }
+    }
+
+    /**
+     * The records and arena as of one completed write. Both only ever grow by adding chunks,
+     * so the rows below size stay where this state can read them.
+     */
+    private static final class OffHeapColumns extends Columns {
+        private final OffHeapRecords records;
+        private final OffHeapText text;
+
+        OffHeapColumns(OffHeapRecords records, OffHeapText text, int size, int removedCount) {
+            super(size, removedCount);
+            this.records = records;
+            this.text = text;
+        }
+
+        @Override
+        int age(int row) {
+            return records.getInt(row, AGE);
+        }
+
+        @Override
+        int teamCode(int row) {
+            return records.getInt(row, TEAM);
+        }
+
+        @Override
+        int positionCode(int row) {
+            return records.getInt(row, POSITION);
+        }
+
+        @Override
+        boolean removed(int row) {
+            return records.getInt(row, REMOVED) != 0;
+        }
+
+        @Override
+        String playerId(int row) {
+            return text.read(address(row), records.getInt(row, ID_LENGTH));
+        }
+
+        @Override
+        String name(int row) {
+            return text.read(address(row) + records.getInt(row, ID_LENGTH), records.getInt(row, NAME_LENGTH));
+        }
+
+        private long address(int row) {
+            return (long) records.getInt(row, TEXT_CHUNK) << 32 | records.getInt(row, TEXT_OFFSET);
+        }
+    }
+
+    /**
+     * The live rows of the store at one moment as an unmodifiable list.
+     */
+    final class Rows extends AbstractList<Player> implements RandomAccess {
+        // Null when no row was removed, so list index and row number are the same
+        private final int[] live;
+        private final int count;
+
+        Rows(int[] live, int count) {
+            this.live = live;
+            this.count = count;
+        }
+
+        /**
+         * Returns the row number of a list index.
+         */
+        int row(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + count);
+            }
+            return live != null ? live[index] : index;
+        }
+
+        @Override
+        public Player get(int index) {
+            return new PlayerView(PlayerStore.this, row(index));
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * A Player whose fields are read from a row of the store on demand.
+     */
+    private static final class PlayerView extends Player {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient PlayerStore store;
+        private final int row;
+
+        PlayerView(PlayerStore store, int row) {
+            super(null, null, 0, null, null);
+            this.store = store;
+            this.row = row;
+        }
+
+        @Override
+        public String getPlayerId() {
+            return store.playerId(row);
+        }
+
+        @Override
+        public String getName() {
+            return store.name(row);
+        }
+
+        @Override
+        public int getAge() {
+            return store.age(row);
+        }
+
+        @Override
+        public String getTeamName() {
+            return store.teamName(row);
+        }
+
+        @Override
+        public String getPosition() {
+            return store.position(row);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PlayerView other && other.store == store && other.row == row;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(store) * 31 + row;
+        }
+
+        /**
+         * Serializes the view as a plain Player holding copies of its values.
+         */
+        @Serial
+        private Object writeReplace() {
+            return new Player(getPlayerId(), getName(), getAge(), getTeamName(), getPosition());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * A list of games kept in date order for binary-searched range and neighbour queries.
+ * Games are held as their numbers in the manager's table of games rather than as references, so a schedule
+ * costs one int per game whether the games live on the heap or off it.
+ * Games added in date order are appended as-is; an out-of-order add marks the list for a
+ * stable re-sort on the next query, so bulk loads cost one sort rather than one per game.
+ * Access is synchronized, and query results are copies, so a schedule can be shared between threads.
+ */
+package dev.assign2.managers;
+
+import dev.assign2.models.Game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+final class Schedule {
+
+    /**
+     * The games known to a manager at one moment, by number.
+     */
+    interface Games {
+        int epochDay(int number);
+
+        Game get(int number);
+    }
+
+    // Read under the schedule's monitor, after every number in the schedule was added to the table
+    private final Supplier<Games> table;
+    private int[] numbers = new int[4];
+    private int size;
+    private int latestDay = Integer.MIN_VALUE;
+    private boolean sorted = true;
+
+    Schedule(Supplier<Games> table) {
+        this.table = table;
+    }
+
+    synchronized void add(int number, int epochDay) {
+        if (epochDay < latestDay) {
+            sorted = false;
+        }
+        latestDay = Math.max(latestDay, epochDay);
+        if (size == numbers.length) numbers = Arrays.copyOf(numbers, size * 2);
+        numbers[size++] = number;
+    }
+
+    /**
+     * Returns every game in date order; games on the same day keep their load order.
+     */
+    synchronized List<Game> all() {
+        Games games = sorted();
+        return resolve(games, 0, size);
+    }
+
+    /**
+     * Returns the games played between two epoch days, both inclusive.
+     */
+    synchronized List<Game> between(int fromDay, int toDay) {
+        Games games = sorted();
+        if (fromDay > toDay) return Collections.emptyList();
+        return resolve(games, lowerBound(games, fromDay), lowerBound(games, toDay + 1));
+    }
+
+    /**
+     * Returns the first game on or after an epoch day, or null if there is none.
+     */
+    synchronized Game firstOnOrAfter(int day) {
+        Games games = sorted();
+        int index = lowerBound(games, day);
+        return index < size ? games.get(numbers[index]) : null;
+    }
+
+    /**
+     * Returns the last game strictly before an epoch day, or null if there is none.
+     */
+    synchronized Game lastBefore(int day) {
+        Games games = sorted();
+        int index = lowerBound(games, day) - 1;
+        return index >= 0 ? games.get(numbers[index]) : null;
+    }
+
+    /**
+     * Sorts the numbers by date if needed and returns the table to read them from.
+     */
+    private Games sorted() {
+        Games games = table.get();
+        if (!sorted) {
+            // Numbers grow in load order, so sorting (day, number) pairs keeps same-day games in load order
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) games.epochDay(numbers[i]) << 32 | numbers[i];
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < size; i++) {
+                numbers[i] = (int) keys[i];
+            }
+            sorted = true;
+        }
+        return games;
+    }
+
+    private List<Game> resolve(Games games, int from, int to) {
+        List<Game> found = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            found.add(games.get(numbers[i]));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * Returns the index of the first game on or after an epoch day.
+     */
+    private int lowerBound(Games games, int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (games.epochDay(numbers[mid]) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
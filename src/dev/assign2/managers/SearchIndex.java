@@ -0,0 +1,412 @@
+/**
+ * A name index answering prefix, substring and typo-tolerant queries with ranked results.
+ * Texts are normalized to lower-case words and stored once per distinct text with the documents
+ * (player rows or team positions) carrying it. Each distinct text is indexed by its character trigrams,
+ * with a space marking word boundaries, so a query only examines texts sharing its rarest trigram, or for
+ * typo-tolerant matching texts sharing enough of its trigrams, and verifies them exactly.
+ * Queries of one or two characters match the start of a word only.
+ * Matches rank exact, then whole-text prefix, word prefix, substring, and finally by edit distance,
+ * counting a swap of adjacent letters as one edit; ties go to the shorter text.
+ * Access is synchronized, so an index can be shared between threads.
+ */
+package dev.assign2.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+final class SearchIndex {
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    // Typo matches score FUZZY plus their edit distance
+    private static final int FUZZY = 3;
+    private static final Comparator<Match> ORDER = Comparator.<Match>comparingInt(m -> m.score)
+            .thenComparingInt(m -> m.length)
+            .thenComparingInt(m -> m.textId);
+
+    private final int textsPerDocument;
+    private final List<String> texts = new ArrayList<>();
+    // Open-addressed table of text ID + 1 by text hash, for finding repeated texts without boxing
+    private int[] textSlots = new int[1024];
+    // The first document of each text; texts shared by several documents keep the rest separately
+    private int[] firstDocuments = new int[64];
+    private final Map<Integer, IntList> moreDocuments = new HashMap<>();
+    private final Postings postings = new Postings();
+    private int documentCount;
+
+    /**
+     * A growable array of ints.
+     */
+    private static final class IntList {
+        private int[] values = new int[2];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Trigram to the IDs of the texts containing it, in ascending order, in an open-addressed table
+     * so that indexing millions of texts does not box every trigram.
+     */
+    private static final class Postings {
+        private int[] keys = new int[1024];
+        private IntList[] lists = new IntList[1024];
+        private int size;
+
+        IntList get(int gram) {
+            int mask = keys.length - 1;
+            for (int slot = mix(gram) & mask; lists[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == gram) return lists[slot];
+            }
+            return null;
+        }
+
+        void add(int gram, int textId) {
+            int mask = keys.length - 1;
+            int slot = mix(gram) & mask;
+            while (lists[slot] != null && keys[slot] != gram) slot = (slot + 1) & mask;
+            if (lists[slot] == null) {
+                keys[slot] = gram;
+                lists[slot] = new IntList();
+                if (++size * 2 > keys.length) {
+                    grow();
+                    add(gram, textId);
+                    return;
+                }
+            }
+            // A text repeating a trigram is listed once
+            IntList list = lists[slot];
+            if (list.size == 0 || list.values[list.size - 1] != textId) list.add(textId);
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            IntList[] oldLists = lists;
+            keys = new int[oldKeys.length * 2];
+            lists = new IntList[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldLists[i] == null) continue;
+                int slot = mix(oldKeys[i]) & mask;
+                while (lists[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                lists[slot] = oldLists[i];
+            }
+        }
+
+        private static int mix(int gram) {
+            int h = gram * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * A distinct text that matched a query, and how well.
+     */
+    private static final class Match {
+        private final int textId;
+        private final int score;
+        private final int length;
+
+        Match(int textId, int score, int length) {
+            this.textId = textId;
+            this.score = score;
+            this.length = length;
+        }
+    }
+
+    /**
+     * @param textsPerDocument the most texts indexed for one document, used to size top-K selection
+     */
+    SearchIndex(int textsPerDocument) {
+        this.textsPerDocument = textsPerDocument;
+    }
+
+    /**
+     * Returns one more than the highest document indexed so far, so callers can index only newer documents.
+     */
+    synchronized int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Indexes a text of a document. Documents are expected in ascending order.
+     */
+    synchronized void add(int document, String text) {
+        documentCount = Math.max(documentCount, document + 1);
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) return;
+        int mask = textSlots.length - 1;
+        int slot = normalized.hashCode() * 0x9E3779B9 >>> 7 & mask;
+        while (textSlots[slot] != 0 && !texts.get(textSlots[slot] - 1).equals(normalized)) slot = (slot + 1) & mask;
+        if (textSlots[slot] == 0) {
+            int textId = texts.size();
+            texts.add(normalized);
+            textSlots[slot] = textId + 1;
+            if (texts.size() * 2 > textSlots.length) rehashTexts();
+            if (textId == firstDocuments.length) firstDocuments = Arrays.copyOf(firstDocuments, textId * 2);
+            firstDocuments[textId] = document;
+            indexGrams(normalized, textId);
+            return;
+        }
+        int known = textSlots[slot] - 1;
+        if (firstDocuments[known] != document) {
+            IntList more = moreDocuments.computeIfAbsent(known, k -> new IntList());
+            if (more.size == 0 || more.values[more.size - 1] != document) more.add(document);
+        }
+    }
+
+    private void rehashTexts() {
+        textSlots = new int[textSlots.length * 2];
+        int mask = textSlots.length - 1;
+        for (int textId = 0; textId < texts.size(); textId++) {
+            int slot = texts.get(textId).hashCode() * 0x9E3779B9 >>> 7 & mask;
+            while (textSlots[slot] != 0) slot = (slot + 1) & mask;
+            textSlots[slot] = textId + 1;
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} documents matching a query, best first. Each document appears once.
+     *
+     * @param live tells whether a document still exists; others are skipped
+     */
+    synchronized int[] search(String query, int limit, IntPredicate live) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) return new int[0];
+        // Enough texts that one document matching through several texts rarely leaves the result short
+        int keep = limit * textsPerDocument;
+        PriorityQueue<Match> best = new PriorityQueue<>(ORDER.reversed());
+        IntList candidates = substringCandidates(normalized);
+        Set<Integer> matched = new HashSet<>();
+        for (int i = 0; i < candidates.size; i++) {
+            int textId = candidates.values[i];
+            String text = texts.get(textId);
+            int score = exactScore(text, normalized);
+            if (score >= 0 && offer(best, new Match(textId, score, text.length()), keep, live)) matched.add(textId);
+        }
+        int maxEdits = normalized.length() < 3 ? 0 : normalized.length() <= 5 ? 1 : 2;
+        if (maxEdits > 0 && best.size() < keep) {
+            candidates = fuzzyCandidates(normalized, maxEdits);
+            for (int i = 0; i < candidates.size; i++) {
+                int textId = candidates.values[i];
+                if (matched.contains(textId)) continue;
+                String text = texts.get(textId);
+                int distance = fuzzyDistance(text, normalized, maxEdits);
+                if (distance <= maxEdits) offer(best, new Match(textId, FUZZY + distance, text.length()), keep, live);
+            }
+        }
+
+        Match[] ranked = best.toArray(new Match[0]);
+        Arrays.sort(ranked, ORDER);
+        int[] found = new int[limit];
+        int count = 0;
+        Set<Integer> seen = new HashSet<>();
+        for (Match match : ranked) {
+            int first = firstDocuments[match.textId];
+            if (count < limit && live.test(first) && seen.add(first)) found[count++] = first;
+            IntList more = moreDocuments.get(match.textId);
+            for (int i = 0; more != null && i < more.size && count < limit; i++) {
+                int document = more.values[i];
+                if (live.test(document) && seen.add(document)) found[count++] = document;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Keeps a match if it ranks among the best so far and one of its documents still exists.
+     */
+    private boolean offer(PriorityQueue<Match> best, Match match, int keep, IntPredicate live) {
+        if (best.size() == keep && ORDER.compare(match, best.peek()) >= 0) return false;
+        boolean any = live.test(firstDocuments[match.textId]);
+        IntList more = moreDocuments.get(match.textId);
+        for (int i = 0; !any && more != null && i < more.size; i++) {
+            any = live.test(more.values[i]);
+        }
+        if (!any) return false;
+        best.add(match);
+        if (best.size() > keep) best.poll();
+        return true;
+    }
+
+    /**
+     * Returns the texts that may contain the query: those holding its rarest trigram, or for a query of
+     * one or two characters those with a word starting with it.
+     */
+    private IntList substringCandidates(String query) {
+        int[] grams;
+        if (query.length() == 1) {
+            grams = new int[] {wordStart(query.charAt(0))};
+        } else if (query.length() == 2) {
+            grams = new int[] {gram(' ', query.charAt(0), query.charAt(1))};
+        } else {
+            grams = trigrams(query);
+        }
+        IntList rarest = null;
+        for (int gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) return new IntList();
+            if (rarest == null || list.size < rarest.size) rarest = list;
+        }
+        return rarest;
+    }
+
+    /**
+     * Returns the texts sharing enough trigrams with the query to be within the edit distance of it.
+     * One edit changes at most three trigrams.
+     */
+    private IntList fuzzyCandidates(String query, int maxEdits) {
+        int[] grams = trigrams(' ' + query + ' ');
+        int needed = Math.max(1, grams.length - 3 * maxEdits);
+        int[] shared = new int[texts.size()];
+        IntList candidates = new IntList();
+        for (int gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) continue;
+            for (int i = 0; i < list.size; i++) {
+                if (++shared[list.values[i]] == needed) candidates.add(list.values[i]);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Scores an exact, prefix or substring match of a query in a text, or returns -1 if there is none.
+     * Queries of one or two characters only match the start of a word.
+     */
+    private static int exactScore(String text, String query) {
+        if (text.equals(query)) return EXACT;
+        if (text.startsWith(query)) return PREFIX;
+        if (text.contains(' ' + query)) return WORD_PREFIX;
+        return query.length() > 2 && text.contains(query) ? SUBSTRING : -1;
+    }
+
+    /**
+     * Returns the smallest edit distance between the query and the whole text or any run of as many
+     * words as the query has, or more than {@code maxEdits} if none is close enough.
+     */
+    private static int fuzzyDistance(String text, String query, int maxEdits) {
+        int best = editDistance(text, query, maxEdits);
+        String[] words = text.split(" ");
+        int span = query.split(" ").length;
+        for (int start = 0; start + span <= words.length && best > 0 && words.length > 1; start++) {
+            String run = String.join(" ", Arrays.asList(words).subList(start, start + span));
+            best = Math.min(best, editDistance(run, query, maxEdits));
+        }
+        return best;
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and swaps of adjacent characters,
+     * giving up as soon as it must exceed {@code max}; anything beyond is reported as max + 1.
+     */
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) return max + 1;
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * Lower-cases a text and reduces it to words of letters and digits separated by single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) normalized.append(' ');
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Adds a text to the postings of its trigrams, with spaces around every word, and of a gram for
+     * the first letter of every word so single-letter queries need not scan every text.
+     */
+    private void indexGrams(String normalized, int textId) {
+        int length = normalized.length();
+        char a = ' ';
+        char b = normalized.charAt(0);
+        postings.add(wordStart(b), textId);
+        for (int i = 1; i <= length; i++) {
+            char c = i < length ? normalized.charAt(i) : ' ';
+            postings.add(gram(a, b, c), textId);
+            if (b == ' ') postings.add(wordStart(c), textId);
+            a = b;
+            b = c;
+        }
+    }
+
+    /**
+     * Returns the distinct trigrams of a text.
+     */
+    private static int[] trigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        int[] grams = new int[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = gram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        }
+        return distinct(grams, count);
+    }
+
+    private static int[] distinct(int[] grams, int count) {
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) grams[unique++] = grams[i];
+        }
+        return unique == grams.length ? grams : Arrays.copyOf(grams, unique);
+    }
+
+    private static int gram(char a, char b, char c) {
+        // Unique for characters below U+0400; other collisions only add candidates, which are verified anyway
+        return (a << 20) ^ (b << 10) ^ c;
+    }
+
+    private static int wordStart(char c) {
+        // No normalized text contains a NUL, so this never equals a real trigram
+        return gram('\0', ' ', c);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * League standings maintained incrementally from game results.
+ * Each played game updates two team records in constant time, and a score correction
+ * reverses the old result before applying the new one. The ranked table is only re-sorted
+ * when it is requested after a change. All access is synchronized on the standings, and readers get
+ * immutable copies of the records, so a record is never seen half-updated.
+ */
+package dev.assign2.managers;
+
+import dev.assign2.models.Game;
+import dev.assign2.models.TeamRecord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Standings {
+
+    private static final Comparator<TeamRecord> RANKING = Comparator
+            .comparingDouble(TeamRecord::getWinPercentage).reversed()
+            .thenComparing(Comparator.comparingInt(TeamRecord::getPointDifferential).reversed())
+            .thenComparing(TeamRecord::getTeamName, String.CASE_INSENSITIVE_ORDER);
+
+    private final SymbolTable symbols = SymbolTable.shared();
+    // Keyed by case-insensitive symbol key IDs of team names
+    private final Map<Integer, Tally> tallies = new HashMap<>();
+    private List<TeamRecord> ranked = Collections.emptyList();
+    private boolean dirty;
+
+    /**
+     * A team's running totals, changed only under the standings' lock.
+     */
+    private static final class Tally {
+        private final String teamName;
+        private int wins;
+        private int losses;
+        private int ties;
+        private int pointsFor;
+        private int pointsAgainst;
+
+        Tally(String teamName) {
+            this.teamName = teamName;
+        }
+
+        /**
+         * Adds or removes the result of one game.
+         */
+        void apply(int scored, int allowed, int sign) {
+            if (scored > allowed) {
+                wins += sign;
+            } else if (scored < allowed) {
+                losses += sign;
+            } else {
+                ties += sign;
+            }
+            pointsFor += sign * scored;
+            pointsAgainst += sign * allowed;
+        }
+
+        TeamRecord toRecord() {
+            return new TeamRecord(teamName, wins, losses, ties, pointsFor, pointsAgainst);
+        }
+    }
+
+    /**
+     * Adds a game's result to both teams' records. Games without a score are ignored.
+     *
+     * @param game the game to add
+     */
+    public synchronized void add(Game game) {
+        apply(game.getTeam1(), game.getTeam2(), game.getScore1(), game.getScore2(), 1);
+    }
+
+    /**
+     * Replaces a game's previous result with a new one.
+     *
+     * @param game      the game, already holding its new score
+     * @param oldScore1 the first team's previous points, or {@link Game#NO_SCORE}
+     * @param oldScore2 the second team's previous points, or {@link Game#NO_SCORE}
+     */
+    public synchronized void correct(Game game, int oldScore1, int oldScore2) {
+        apply(game.getTeam1(), game.getTeam2(), oldScore1, oldScore2, -1);
+        add(game);
+    }
+
+    /**
+     * Sets a game's score and moves the standings from its old result to the new one, as one step.
+     *
+     * @param game   the game to update
+     * @param score1 the first team's points, or {@link Game#NO_SCORE}
+     * @param score2 the second team's points, or {@link Game#NO_SCORE}
+     */
+    public synchronized void rescore(Game game, int score1, int score2) {
+        int oldScore1 = game.getScore1();
+        int oldScore2 = game.getScore2();
+        game.setScore(score1, score2);
+        correct(game, oldScore1, oldScore2);
+    }
+
+    /**
+     * Returns a team's record.
+     *
+     * @param teamName the name of the team
+     * @return a copy of the record, or null if the team has no played games
+     */
+    public synchronized TeamRecord getRecord(String teamName) {
+        if (teamName == null) return null;
+        int key = symbols.findKeyId(teamName);
+        Tally tally = key >= 0 ? tallies.get(key) : null;
+        return tally != null ? tally.toRecord() : null;
+    }
+
+    /**
+     * Returns all records ranked by winning percentage, then point differential, then team name.
+     *
+     * @return an unmodifiable ranked list of copies of the records
+     */
+    public synchronized List<TeamRecord> getRanked() {
+        if (dirty) {
+            List<TeamRecord> sorted = new ArrayList<>(tallies.size());
+            for (Tally tally : tallies.values()) {
+                sorted.add(tally.toRecord());
+            }
+            sorted.sort(RANKING);
+            ranked = Collections.unmodifiableList(sorted);
+            dirty = false;
+        }
+        return ranked;
+    }
+
+    private void apply(String team1, String team2, int score1, int score2, int sign) {
+        if (score1 == Game.NO_SCORE || score2 == Game.NO_SCORE) return;
+        tally(team1).apply(score1, score2, sign);
+        tally(team2).apply(score2, score1, sign);
+        dirty = true;
+    }
+
+    private Tally tally(String teamName) {
+        return tallies.computeIfAbsent(symbols.keyId(teamName), k -> new Tally(teamName));
+    }
+}
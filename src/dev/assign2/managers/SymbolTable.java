@@ -0,0 +1,118 @@
+/**
+ * Project-wide table of repeated values such as team names, positions, cities and locations.
+ * Each distinct string gets one shared instance and a stable int ID, and each string also maps to a
+ * case-insensitive key ID, so team-name matching becomes an int comparison instead of equalsIgnoreCase.
+ * The table is safe to use from the concurrent startup loaders.
+ */
+package dev.assign2.managers;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class SymbolTable {
+
+    private static final SymbolTable SHARED = new SymbolTable();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // Key IDs of exact spellings that are themselves symbols, so repeated lookups skip case folding
+    private final ConcurrentHashMap<String, Integer> keyIds = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int count;
+
+    /**
+     * Returns the table shared by all managers.
+     *
+     * @return the shared symbol table
+     */
+    public static SymbolTable shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the ID of a value, adding it if it is new.
+     *
+     * @param value the value to look up
+     * @return the value's ID
+     */
+    public int id(String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : add(value);
+    }
+
+    /**
+     * Returns the shared instance equal to a value, adding it if it is new.
+     * Null is returned unchanged.
+     *
+     * @param value the value to canonicalize
+     * @return the shared instance
+     */
+    public String intern(String value) {
+        return value == null ? null : value(id(value));
+    }
+
+    /**
+     * Returns the value with the given ID.
+     *
+     * @param id the ID
+     * @return the value
+     */
+    public String value(int id) {
+        return values[id];
+    }
+
+    /**
+     * Returns the number of symbols in the table.
+     *
+     * @return symbol count
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns the ID of a value's case-insensitive key (trimmed and lower-cased), adding it if it is new.
+     * Values that differ only in case or surrounding spaces share a key ID.
+     *
+     * @param value the value to look up
+     * @return the key ID
+     */
+    public int keyId(String value) {
+        Integer keyId = keyIds.get(value);
+        if (keyId != null) return keyId;
+        keyId = id(normalize(value));
+        keyIds.putIfAbsent(intern(value), keyId);
+        return keyId;
+    }
+
+    /**
+     * Returns the key ID of a value without adding anything, for lookups of arbitrary input.
+     *
+     * @param value the value to look up
+     * @return the key ID, or -1 if no value with the same key has been added
+     */
+    public int findKeyId(String value) {
+        Integer keyId = keyIds.get(value);
+        if (keyId != null) return keyId;
+        Integer id = ids.get(normalize(value));
+        return id != null ? id : -1;
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = ids.get(value);
+        if (existing != null) return existing;
+        String[] current = values;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, count * 2);
+        }
+        current[count] = value;
+        // Publish the array before the ID so readers that see the ID also see the value
+        values = current;
+        ids.put(value, count);
+        return count++;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,55 +1,87 @@
 /**
  * Manages team-related operations such as loading teams, displaying teams, and adding teams.
+ * Lookups and display are safe while other threads add teams; writers are serialized.
+ * Teams added after loading are recorded in the journal, if one is attached.
+ * Loads, lookups, adds and display are counted and timed in the shared {@link Metrics}.
+ * Team names, cities and coach names are searchable by prefix, substring and approximate spelling.
+ * Roster statistics of each team and of the whole league are read from the teams' running totals.
  */
 package dev.assign2.managers;
 
+import dev.assign2.io.CsvReader;
+import dev.assign2.io.Journal;
+import dev.assign2.io.TableWriter;
 import dev.assign2.models.Coach;
+import dev.assign2.models.RosterStats;
 import dev.assign2.models.Team;
+import dev.assign2.util.Metrics;
+import dev.assign2.util.SnapshotList;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TeamManager {
 
-    private List<Team> teams = new ArrayList<>();
+    private final SnapshotList<Team> teams = new SnapshotList<>();
+
+    private final SymbolTable symbols = SymbolTable.shared();
+
+    // Lookup indexes keyed by case-insensitive symbol key IDs; kept in step with teams
+    private final Map<Integer, Team> teamsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, SnapshotList<Team>> teamsByCity = new ConcurrentHashMap<>();
+    private final Map<Integer, SnapshotList<Team>> teamsByCoach = new ConcurrentHashMap<>();
+
+    private volatile Journal journal;
+
+    // Name, city and coach name of each team by list position; catches up with new teams when searched
+    private final SearchIndex searchIndex = new SearchIndex(3);
+
+    private final Metrics.Timer loadTimer = Metrics.shared().timer("teams.load");
+    private final Metrics.Timer displayTimer = Metrics.shared().timer("teams.display");
+    private final Metrics.Timer searchTimer = Metrics.shared().timer("teams.search");
+    private final Metrics.Timer rosterStatsTimer = Metrics.shared().timer("teams.rosterStats");
+    private final Metrics.Counter finds = Metrics.shared().counter("teams.find");
+    private final Metrics.Counter findMisses = Metrics.shared().counter("teams.find.miss");
+    private final Metrics.Counter adds = Metrics.shared().counter("teams.add");
 
     /**
      * Loads teams from a CSV file.
      *
-     * @param csvFile the path to the CSV file containing team data
+     * @param csvFile the path to the CSV file containing team data, optionally gzip-compressed
      * @throws Exception if the file is not found or has an invalid format
      */
     public void loadTeams(String csvFile) throws Exception {
-        try (BufferedReader buff = new BufferedReader(new FileReader(csvFile))) {
-            String line = buff.readLine();
-            if (line == null) {
-                throw new Exception("Empty CSV file: " + csvFile);
-            }
-            int numCols = line.split(",").length;
-
-            // Process the first line as data and then remaining lines
-            do {
-                String[] fields = line.split(",");
-                if (fields.length != numCols) {
-                    throw new Exception("Invalid CSV format for teams. Expected " + numCols + " columns.");
+        Metrics.Sample sample = loadTimer.start();
+        int rows;
+        try {
+            // The first line is data too; its width is the expected width of every row
+            rows = CsvReader.read(Path.of(csvFile), row -> {
+                if (row.size() != row.expectedSize()) {
+                    throw new Exception("Invalid CSV format for teams. Expected " + row.expectedSize() + " columns.");
                 }
-                String teamName = fields[0];
-                String city = fields[1];
-                String coachName = fields[2];
-                int yearsOfExperience = (fields.length > 3) ? Integer.parseInt(fields[3]) : 0;
-                String coachId = "C" + String.format("%02d", teams.size() + 1);
-                Coach coach = new Coach(coachId, coachName, teamName, yearsOfExperience);
-                teams.add(new Team(teamName, city, coach));
-            } while ((line = buff.readLine()) != null);
-        } catch (FileNotFoundException e) {
+                String teamName = row.getString(0);
+                String city = row.getString(1);
+                String coachName = row.getString(2);
+                int yearsOfExperience = (row.size() > 3) ? row.getInt(3) : 0;
+                newTeam(teamName, city, coachName, yearsOfExperience);
+            });
+        } catch (NoSuchFileException e) {
             throw new Exception("File not found: " + csvFile);
         } catch (IOException | NumberFormatException e) {
             throw new Exception("Error processing teams file.");
         }
+        sample.stop(rows);
+        if (rows == 0) {
+            throw new Exception("Empty CSV file: " + csvFile);
+        }
     }
 
 
@@ -60,33 +92,210 @@ public class TeamManager {
      * @return the Team object if found; otherwise, null
      */
     public Team findTeam(String teamName) {
-        for (Team team : teams) {
-            if (team.getTeamName().equalsIgnoreCase(teamName)) {
-                return team;
+        finds.increment();
+        Team team = lookup(teamName);
+        if (team == null) findMisses.increment();
+        return team;
+    }
+
+    /**
+     * Checks whether a team exists without counting a lookup in the metrics, for internal checks such as
+     * replaying the journal.
+     *
+     * @param teamName the name of the team
+     * @return true if a team with the name exists
+     */
+    public boolean hasTeam(String teamName) {
+        return lookup(teamName) != null;
+    }
+
+    /**
+     * Finds a team by name without counting the lookup, for duplicate checks and for resolving the teams
+     * of players being stored.
+     */
+    Team lookup(String teamName) {
+        int key = teamName != null ? symbols.findKeyId(teamName) : -1;
+        return key >= 0 ? teamsByName.get(key) : null;
+    }
+
+    /**
+     * Finds all teams based in the given city.
+     *
+     * @param city the city to search for
+     * @return an unmodifiable list of matching teams; empty if none match
+     */
+    public List<Team> findTeamsByCity(String city) {
+        if (city == null) return Collections.emptyList();
+        SnapshotList<Team> found = teamsByCity.get(symbols.findKeyId(city));
+        return found != null ? found.snapshot() : Collections.emptyList();
+    }
+
+    /**
+     * Finds all teams coached by the given coach.
+     *
+     * @param coachName the name of the coach to search for
+     * @return an unmodifiable list of matching teams; empty if none match
+     */
+    public List<Team> findTeamsByCoach(String coachName) {
+        if (coachName == null) return Collections.emptyList();
+        SnapshotList<Team> found = teamsByCoach.get(symbols.findKeyId(coachName));
+        return found != null ? found.snapshot() : Collections.emptyList();
+    }
+
+    /**
+     * Searches team names, cities and coach names for a query, tolerating a typo or two in longer queries.
+     * Teams are ranked by their best matching field: exact, then starting with the query, containing it,
+     * and finally within a small edit distance of it.
+     *
+     * @param query the text to search for; case and punctuation are ignored
+     * @param limit the most teams to return
+     * @return the best matching teams, best first
+     */
+    public List<Team> searchTeams(String query, int limit) {
+        Metrics.Sample sample = searchTimer.start();
+        List<Team> snapshot = teams.snapshot();
+        int[] positions;
+        synchronized (searchIndex) {
+            for (int i = searchIndex.documentCount(); i < snapshot.size(); i++) {
+                Team team = snapshot.get(i);
+                searchIndex.add(i, team.getTeamName());
+                searchIndex.add(i, team.getCity());
+                searchIndex.add(i, team.getCoach().getName());
             }
+            positions = searchIndex.search(query, limit, i -> i < snapshot.size());
+        }
+        List<Team> found = new ArrayList<>(positions.length);
+        for (int i : positions) {
+            found.add(snapshot.get(i));
         }
-        return null;
+        sample.stop(found.size());
+        return found;
     }
 
     /**
      * Displays all loaded teams in a formatted table.
      */
     public void displayTeams() {
-        System.out.println("---------------------------------------------------------------------");
-        System.out.printf("%-12s %-15s %-30s %s%n", "Team", "City", "Coach", "Players");
-        System.out.println("---------------------------------------------------------------------");
-
-        for (Team team : teams) {
-            System.out.printf("%-12s %-15s %-30s %d%n",
-                    team.getTeamName(),
-                    team.getCity(),
-                    team.getCoach().getName() + " (" + team.getCoach().getYearsOfExperience() + " years)",
-                    team.getPlayers().size());
+        try {
+            displayTeams(TableWriter.standardOut(), 0, Integer.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a page of the teams table.
+     *
+     * @param out     the destination, for example standard output or a file
+     * @param first   the index of the first team to write
+     * @param maxRows the maximum number of teams to write
+     * @return the number of teams written
+     * @throws IOException if the destination cannot be written
+     */
+    public int displayTeams(Writer out, int first, int maxRows) throws IOException {
+        Metrics.Sample sample = displayTimer.start();
+        TableWriter table = new TableWriter(out, 12, 15, 30, 0);
+        table.line("---------------------------------------------------------------------");
+        table.header("Team", "City", "Coach", "Players");
+        table.line("---------------------------------------------------------------------");
+
+        List<Team> snapshot = teams.snapshot();
+        int end = (int) Math.min(snapshot.size(), (long) first + maxRows);
+        for (int i = Math.max(0, first); i < end; i++) {
+            Team team = snapshot.get(i);
+            table.cell(team.getTeamName())
+                    .cell(team.getCity())
+                    .text(team.getCoach().getName()).text(" (").number(team.getCoach().getYearsOfExperience()).text(" years)").endCell()
+                    .cell(team.getPlayerCount())
+                    .endRow();
+        }
+        table.flush();
+        int written = Math.max(0, end - Math.max(0, first));
+        sample.stop(written);
+        return written;
+    }
+
+    /**
+     * Returns a team's roster statistics.
+     *
+     * @param teamName the name of the team
+     * @return the statistics, or null if the team is not found
+     */
+    public RosterStats getRosterStats(String teamName) {
+        Team team = findTeam(teamName);
+        return team != null ? team.getRosterStats() : null;
+    }
+
+    /**
+     * Returns the roster statistics of all teams together, combined from each team's totals.
+     *
+     * @return the league-wide statistics
+     */
+    public RosterStats getLeagueRosterStats() {
+        List<Team> snapshot = teams.snapshot();
+        List<RosterStats> parts = new ArrayList<>(snapshot.size());
+        for (Team team : snapshot) {
+            parts.add(team.getRosterStats());
+        }
+        return RosterStats.combine(parts);
+    }
+
+    /**
+     * Writes each team's roster statistics, then the league's totals and players per position.
+     *
+     * @param out the destination, for example standard output or a file
+     * @throws IOException if the destination cannot be written
+     */
+    public void displayRosterStats(Writer out) throws IOException {
+        Metrics.Sample sample = rosterStatsTimer.start();
+        TableWriter table = new TableWriter(out, 15, 9, 9, 10, 0);
+        table.line("-------------------------------------------------------");
+        table.header("Team", "Players", "Avg Age", "Age Range", "Top Position");
+        table.line("-------------------------------------------------------");
+
+        List<Team> snapshot = teams.snapshot();
+        List<RosterStats> parts = new ArrayList<>(snapshot.size());
+        for (Team team : snapshot) {
+            RosterStats stats = team.getRosterStats();
+            parts.add(stats);
+            row(table, team.getTeamName(), stats);
+        }
+        RosterStats league = RosterStats.combine(parts);
+        table.line("-------------------------------------------------------");
+        row(table, "League", league);
+        table.flush();
+
+        table = new TableWriter(out, 15, 0);
+        table.line("-------------------------");
+        table.header("Position", "Players");
+        table.line("-------------------------");
+        for (Map.Entry<String, Integer> entry : league.getPositionCounts().entrySet()) {
+            table.cell(entry.getKey()).cell(entry.getValue()).endRow();
+        }
+        table.flush();
+        sample.stop(snapshot.size());
+    }
+
+    private static void row(TableWriter table, String label, RosterStats stats) throws IOException {
+        String topPosition = "";
+        int topCount = 0;
+        for (Map.Entry<String, Integer> entry : stats.getPositionCounts().entrySet()) {
+            if (entry.getValue() > topCount) {
+                topPosition = entry.getKey();
+                topCount = entry.getValue();
+            }
         }
+        table.cell(label)
+                .cell(stats.getPlayerCount())
+                .cell(String.format("%.1f", stats.getAverageAge()))
+                .number(stats.getMinAge()).text("-").number(stats.getMaxAge()).endCell()
+                .text(topPosition);
+        if (topCount > 0) table.text(" (").number(topCount).text(")");
+        table.endCell().endRow();
     }
 
     /**
-     * Adds a new team to the list of teams.
+     * Adds a new team to the list of teams, unless a team with the same name exists.
      *
      * @param teamName          the name of the team
      * @param city              the city the team is based in
@@ -94,10 +303,152 @@ public class TeamManager {
      * @param yearsOfExperience the coach's years of experience
      */
     public void addTeam(String teamName, String city, String coachName, int yearsOfExperience) {
+        if (createTeam(teamName, city, coachName, yearsOfExperience) != null) {
+            System.out.println("Team added successfully!");
+        } else {
+            System.out.println("Team already exists. Team not added.");
+        }
+    }
+
+    /**
+     * Adds already built teams, for example ones restored from a snapshot, keeping their order.
+     *
+     * @param loaded the teams to add
+     */
+    public void addLoadedTeams(List<Team> loaded) {
+        for (Team team : loaded) {
+            register(team);
+        }
+    }
+
+    /**
+     * Adds a team read from the teams file while running, unless a team with the same name exists.
+     * Nothing is journaled, since the file already holds the team.
+     *
+     * @param teamName          the name of the team
+     * @param city              the city the team is based in
+     * @param coachName         the name of the coach
+     * @param yearsOfExperience the coach's years of experience
+     * @return the new team, or null if a team with the same name exists and nothing was added
+     */
+    public synchronized Team addLoadedTeam(String teamName, String city, String coachName, int yearsOfExperience) {
+        if (lookup(teamName) != null) return null;
+        return newTeam(teamName, city, coachName, yearsOfExperience);
+    }
+
+    /**
+     * Returns all teams in load order.
+     *
+     * @return an unmodifiable view of the teams
+     */
+    public List<Team> getTeams() {
+        return teams.snapshot();
+    }
+
+    /**
+     * Attaches a journal that records every team added from now on. Attach it after loading and replaying.
+     *
+     * @param journal the journal to append to, or null to stop recording
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Adds a new team and returns once it is recorded in the journal, if one is attached.
+     * The name is checked and the team added as one step, so concurrent adds of one name create one team.
+     * Unlike {@link #addTeam}, nothing is printed.
+     *
+     * @param teamName          the name of the team
+     * @param city              the city the team is based in
+     * @param coachName         the name of the coach
+     * @param yearsOfExperience the coach's years of experience
+     * @return the new team, or null if a team with the same name exists and nothing was added
+     * @throws UncheckedIOException if the team was added but could not be recorded
+     */
+    public Team createTeam(String teamName, String city, String coachName, int yearsOfExperience) {
+        Journal log = journal;
+        Team team;
+        long sequence = 0;
+        try {
+            // Queue in the same order as the teams are added; wait for the disk after releasing the lock
+            synchronized (this) {
+                if (lookup(teamName) != null) return null;
+                team = newTeam(teamName, city, coachName, yearsOfExperience);
+                adds.increment();
+                if (log != null) {
+                    sequence = log.enqueue(Journal.ADD_TEAM, team.getTeamName(), team.getCity(),
+                            team.getCoach().getName(), String.valueOf(yearsOfExperience));
+                }
+            }
+            if (log != null) log.await(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return team;
+    }
+
+    /**
+     * Adds a batch of new teams like {@link #createTeam} and records all of them in the journal, if one is
+     * attached, with a single commit. Teams whose name already exists are skipped.
+     *
+     * @param batch the validated teams to add, in order
+     * @return the number of teams added
+     * @throws UncheckedIOException if the teams were added but could not be recorded
+     */
+    int importTeams(List<BulkImporter.PendingTeam> batch) {
+        Journal log = journal;
+        List<String[]> records = new ArrayList<>(batch.size());
+        long sequence = 0;
+        try {
+            synchronized (this) {
+                for (BulkImporter.PendingTeam pending : batch) {
+                    if (lookup(pending.name) != null) continue;
+                    Team team = newTeam(pending.name, pending.city, pending.coachName, pending.yearsOfExperience);
+                    records.add(new String[]{team.getTeamName(), team.getCity(), team.getCoach().getName(),
+                            String.valueOf(pending.yearsOfExperience)});
+                }
+                adds.add(records.size());
+                if (log != null && !records.isEmpty()) sequence = log.enqueueAll(Journal.ADD_TEAM, records);
+            }
+            if (log != null) log.await(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records.size();
+    }
+
+    /**
+     * Builds a team with the next coach ID and registers it, as one step so concurrent adds get distinct IDs.
+     *
+     * @param teamName          the name of the team
+     * @param city              the city the team is based in
+     * @param coachName         the name of the coach
+     * @param yearsOfExperience the coach's years of experience
+     * @return the new team
+     */
+    private synchronized Team newTeam(String teamName, String city, String coachName, int yearsOfExperience) {
+        teamName = symbols.intern(teamName);
+        city = symbols.intern(city);
+        coachName = symbols.intern(coachName);
         String coachId = "C" + String.format("%02d", teams.size() + 1); // Generate coach ID dynamically
         Coach coach = new Coach(coachId, coachName, teamName, yearsOfExperience);
-        teams.add(new Team(teamName, city, coach));
-        System.out.println("Team added successfully!");
+        Team team = new Team(teamName, city, coach);
+        register(team);
+        return team;
+    }
+
+    /**
+     * Appends a team to the list and records it in every lookup index.
+     * If a team with the same name already exists, name lookups keep returning the first one.
+     *
+     * @param team the team to register
+     */
+    private synchronized void register(Team team) {
+        teams.add(team);
+        teamsByName.putIfAbsent(symbols.keyId(team.getTeamName()), team);
+        teamsByCity.computeIfAbsent(symbols.keyId(team.getCity()), k -> new SnapshotList<>()).add(team);
+        teamsByCoach.computeIfAbsent(symbols.keyId(team.getCoach().getName()), k -> new SnapshotList<>()).add(team);
     }
 }
 
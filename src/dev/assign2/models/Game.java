@@ -1,40 +1,70 @@
 /**
  * Represents a game between two teams in the NFL management system.
  * Contains details such as the teams involved, date, location, and score.
+ * The date and score are parsed once on construction and kept as ints.
  */
 package dev.assign2.models;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.LocalDate;
 
 public class Game implements Serializable {
 
-
+    /**
+     * Score value used for games that have not been played yet.
+     */
+    public static final int NO_SCORE = -1;
 
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     private String team1;
     private String team2;
-    private String date;
+    private int epochDay;
     private String location;
-    private String score;
+    private int score1;
+    private int score2;
 
     /**
-     * Constructs a new Game.
+     * Constructs a new Game from its text form.
      *
      * @param team1    the name of the first team
      * @param team2    the name of the second team
-     * @param date     the date of the game
+     * @param date     the date of the game in ISO format (yyyy-MM-dd)
      * @param location the location where the game is played
-     * @param score    the score of the game
+     * @param score    the score of the game as "team1-team2", or blank if not played yet
+     * @throws java.time.format.DateTimeParseException if the date is not a valid ISO date
+     * @throws NumberFormatException                   if the score is not blank and not of the form "n-n"
      */
     public Game(String team1, String team2, String date, String location, String score) {
+        this(team1, team2, (int) LocalDate.parse(date.trim()).toEpochDay(), location, NO_SCORE, NO_SCORE);
+        if (score != null && !score.isBlank()) {
+            int dash = score.indexOf('-');
+            if (dash < 0) throw new NumberFormatException("Invalid score: " + score);
+            this.score1 = Integer.parseInt(score.substring(0, dash).trim());
+            this.score2 = Integer.parseInt(score.substring(dash + 1).trim());
+            if (score1 < 0 || score2 < 0) throw new NumberFormatException("Invalid score: " + score);
+        }
+    }
+
+    /**
+     * Constructs a new Game from already parsed values.
+     *
+     * @param team1    the name of the first team
+     * @param team2    the name of the second team
+     * @param epochDay the date of the game as days since 1970-01-01
+     * @param location the location where the game is played
+     * @param score1   the first team's points, or {@link #NO_SCORE}
+     * @param score2   the second team's points, or {@link #NO_SCORE}
+     */
+    public Game(String team1, String team2, int epochDay, String location, int score1, int score2) {
         this.team1 = team1;
         this.team2 = team2;
-        this.date = date;
+        this.epochDay = epochDay;
         this.location = location;
-        this.score = score;
+        this.score1 = score1;
+        this.score2 = score2;
     }
 
     /**
@@ -61,7 +91,25 @@ public class Game implements Serializable {
      * @return game date
      */
     public String getDate() {
-        return date;
+        return getLocalDate().toString();
+    }
+
+    /**
+     * Returns the date of the game.
+     *
+     * @return game date
+     */
+    public LocalDate getLocalDate() {
+        return LocalDate.ofEpochDay(getEpochDay());
+    }
+
+    /**
+     * Returns the date of the game as days since 1970-01-01.
+     *
+     * @return game date as an epoch day
+     */
+    public int getEpochDay() {
+        return epochDay;
     }
 
     /**
@@ -79,7 +127,45 @@ public class Game implements Serializable {
      * @return game score
      */
     public String getScore() {
-        return score;
+        return hasScore() ? getScore1() + "-" + getScore2() : "";
+    }
+
+    /**
+     * Returns the first team's points.
+     *
+     * @return team1 points, or {@link #NO_SCORE} if the game has not been played
+     */
+    public int getScore1() {
+        return score1;
+    }
+
+    /**
+     * Returns the second team's points.
+     *
+     * @return team2 points, or {@link #NO_SCORE} if the game has not been played
+     */
+    public int getScore2() {
+        return score2;
+    }
+
+    /**
+     * Sets or corrects the score of the game.
+     *
+     * @param score1 the first team's points, or {@link #NO_SCORE}
+     * @param score2 the second team's points, or {@link #NO_SCORE}
+     */
+    public void setScore(int score1, int score2) {
+        this.score1 = score1;
+        this.score2 = score2;
+    }
+
+    /**
+     * Returns whether the game has a recorded score.
+     *
+     * @return true if the game has been played
+     */
+    public boolean hasScore() {
+        return getScore1() != NO_SCORE && getScore2() != NO_SCORE;
     }
 
     /**
@@ -90,7 +176,7 @@ public class Game implements Serializable {
     @Override
     public String toString() {
         return String.format("Game: %s vs %s on %s at %s, Score: %s",
-                team1, team2, date, location, score);
+                getTeam1(), getTeam2(), getDate(), getLocation(), getScore());
     }
 }
 
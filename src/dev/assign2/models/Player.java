@@ -86,6 +86,6 @@ public class Player implements Serializable {
     @Override
     public String toString() {
         return String.format("ID: %s, Name: %s, Age: %d, Team: %s, Position: %s",
-                playerId, name, age, teamName, position);
+                getPlayerId(), getName(), getAge(), getTeamName(), getPosition());
     }
 }
@@ -0,0 +1,160 @@
+/**
+ * Represents aggregate statistics of a roster in the NFL management system.
+ * Contains the player count, ages and the number of players at each position.
+ * A team keeps its statistics up to date as players join and leave, and hands out unchanging copies.
+ */
+package dev.assign2.models;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class RosterStats implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Ages above this are counted as this age in the distribution; the sum keeps the real ages
+    private static final int MAX_AGE = 99;
+
+    private int playerCount;
+    private long ageSum;
+    private final int[] ageCounts;
+    private final TreeMap<String, Integer> positionCounts;
+
+    /**
+     * Constructs statistics of an empty roster.
+     */
+    public RosterStats() {
+        this(new int[MAX_AGE + 1], new TreeMap<>());
+    }
+
+    private RosterStats(int[] ageCounts, TreeMap<String, Integer> positionCounts) {
+        this.ageCounts = ageCounts;
+        this.positionCounts = positionCounts;
+    }
+
+    /**
+     * Combines several rosters' statistics, for example into a league-wide total.
+     *
+     * @param parts the statistics to add together
+     * @return new statistics covering every player in the parts
+     */
+    public static RosterStats combine(Collection<RosterStats> parts) {
+        RosterStats total = new RosterStats();
+        for (RosterStats part : parts) {
+            total.playerCount += part.playerCount;
+            total.ageSum += part.ageSum;
+            for (int age = 0; age <= MAX_AGE; age++) {
+                total.ageCounts[age] += part.ageCounts[age];
+            }
+            part.positionCounts.forEach((position, count) -> total.positionCounts.merge(position, count, Integer::sum));
+        }
+        return total;
+    }
+
+    /**
+     * Adds or removes one player from these statistics.
+     *
+     * @param player the player joining or leaving the roster
+     * @param sign   1 to add the player, -1 to remove them
+     */
+    void apply(Player player, int sign) {
+        int age = player.getAge();
+        playerCount += sign;
+        ageSum += (long) sign * age;
+        ageCounts[Math.max(0, Math.min(age, MAX_AGE))] += sign;
+        String position = player.getPosition() != null ? player.getPosition().trim() : "";
+        positionCounts.merge(position, sign, (count, change) -> count + change == 0 ? null : count + change);
+    }
+
+    /**
+     * Returns a copy that is not affected by later changes.
+     *
+     * @return the copy
+     */
+    RosterStats copy() {
+        RosterStats copy = new RosterStats(ageCounts.clone(), new TreeMap<>(positionCounts));
+        copy.playerCount = playerCount;
+        copy.ageSum = ageSum;
+        return copy;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return player count
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Returns the average age of the players.
+     *
+     * @return average age, or 0 if there are no players
+     */
+    public double getAverageAge() {
+        return playerCount == 0 ? 0.0 : (double) ageSum / playerCount;
+    }
+
+    /**
+     * Returns the age of the youngest player.
+     *
+     * @return youngest age, or 0 if there are no players
+     */
+    public int getMinAge() {
+        for (int age = 0; age <= MAX_AGE; age++) {
+            if (ageCounts[age] > 0) return age;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the age of the oldest player.
+     *
+     * @return oldest age, or 0 if there are no players
+     */
+    public int getMaxAge() {
+        for (int age = MAX_AGE; age >= 0; age--) {
+            if (ageCounts[age] > 0) return age;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns how many players are of each age.
+     *
+     * @return an unmodifiable map from age to player count, in age order, without empty ages
+     */
+    public Map<Integer, Integer> getAgeCounts() {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        for (int age = 0; age <= MAX_AGE; age++) {
+            if (ageCounts[age] > 0) counts.put(age, ageCounts[age]);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Returns how many players play each position.
+     *
+     * @return an unmodifiable map from position to player count, in position order
+     */
+    public Map<String, Integer> getPositionCounts() {
+        return Collections.unmodifiableMap(positionCounts);
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return a formatted string with the statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("Players: %d, Average age: %.1f (%d-%d), Positions: %s",
+                playerCount, getAverageAge(), getMinAge(), getMaxAge(), positionCounts);
+    }
+}
@@ -1,25 +1,35 @@
 /**
  * Represents a team in the NFL management system.
  * Contains information such as team name, city, coach, and a list of players.
+ * The roster can be read from any thread while players are being added or removed.
+ * Players are kept in an insertion-ordered set, so adding or removing one takes constant time;
+ * the list handed to readers is built once after each change, when it is first asked for.
+ * Roster statistics are kept up to date as players are added and removed, so reading them does not walk the roster.
  */
 package dev.assign2.models;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 public class Team implements Serializable {
 
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 4L;
 
     private String teamName;
     private String city;
     private Coach coach;
-    private List<Player> players;
-
-
+    // Changed only under the team's lock
+    private final LinkedHashSet<Player> players;
+    private volatile int playerCount;
+    // The roster list handed out, dropped on every change
+    private transient volatile List<Player> roster;
+    // Changed together with players under the team's lock; the copy handed out is dropped on every change
+    private final RosterStats stats = new RosterStats();
+    private transient volatile RosterStats published;
 
     /**
      * Constructs a new Team.
@@ -32,7 +42,7 @@ public class Team implements Serializable {
         this.teamName = teamName;
         this.city = city;
         this.coach = coach;
-        this.players = new ArrayList<>();
+        this.players = new LinkedHashSet<>();
     }
 
     /**
@@ -63,12 +73,31 @@ public class Team implements Serializable {
     }
 
     /**
-     * Returns the list of players in the team.
+     * Returns the players in the team at this moment.
      *
-     * @return list of players
+     * @return an unmodifiable snapshot of the roster
      */
     public List<Player> getPlayers() {
-        return players;
+        List<Player> current = roster;
+        if (current == null) {
+            synchronized (this) {
+                current = roster;
+                if (current == null) {
+                    current = List.copyOf(players);
+                    roster = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the number of players in the team.
+     *
+     * @return roster size
+     */
+    public int getPlayerCount() {
+        return playerCount;
     }
 
     /**
@@ -76,8 +105,60 @@ public class Team implements Serializable {
      *
      * @param player the player to be added
      */
-    public void addPlayer(Player player) {
-        players.add(player);
+    public synchronized void addPlayer(Player player) {
+        if (!players.add(player)) return;
+        stats.apply(player, 1);
+        changed();
+    }
+
+    /**
+     * Removes a player from the team in constant time.
+     *
+     * @param player the player to be removed
+     * @return true if the player was in the team
+     */
+    public synchronized boolean removePlayer(Player player) {
+        if (!players.remove(player)) return false;
+        stats.apply(player, -1);
+        changed();
+        return true;
+    }
+
+    /**
+     * Adds several players to the team at once, keeping their order.
+     *
+     * @param added the players to be added
+     */
+    public synchronized void addPlayers(Collection<? extends Player> added) {
+        for (Player player : added) {
+            if (players.add(player)) stats.apply(player, 1);
+        }
+        changed();
+    }
+
+    /**
+     * Returns the roster statistics at this moment, without walking the roster.
+     *
+     * @return statistics that later roster changes do not affect
+     */
+    public RosterStats getRosterStats() {
+        RosterStats current = published;
+        if (current == null) {
+            synchronized (this) {
+                current = published;
+                if (current == null) {
+                    current = stats.copy();
+                    published = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void changed() {
+        playerCount = players.size();
+        roster = null;
+        published = null;
     }
 
     /**
@@ -88,6 +169,6 @@ public class Team implements Serializable {
     @Override
     public String toString() {
         return String.format("Team (%s), City (%s), Coach (%s), Players: %d",
-                teamName, city, coach.getName(), players.size());
+                teamName, city, coach.getName(), getPlayerCount());
     }
 }
@@ -0,0 +1,133 @@
+/**
+ * Represents a team's season record in the NFL management system.
+ * Contains wins, losses, ties and points scored and allowed over all played games.
+ * A record is an immutable copy of the standings at one moment, so it can be read from any thread.
+ */
+package dev.assign2.models;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+public class TeamRecord implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String teamName;
+    private final int wins;
+    private final int losses;
+    private final int ties;
+    private final int pointsFor;
+    private final int pointsAgainst;
+
+    /**
+     * Constructs a record for a team.
+     *
+     * @param teamName      the name of the team
+     * @param wins          the number of wins
+     * @param losses        the number of losses
+     * @param ties          the number of ties
+     * @param pointsFor     the total points scored
+     * @param pointsAgainst the total points allowed
+     */
+    public TeamRecord(String teamName, int wins, int losses, int ties, int pointsFor, int pointsAgainst) {
+        this.teamName = teamName;
+        this.wins = wins;
+        this.losses = losses;
+        this.ties = ties;
+        this.pointsFor = pointsFor;
+        this.pointsAgainst = pointsAgainst;
+    }
+
+    /**
+     * Returns the name of the team.
+     *
+     * @return team name
+     */
+    public String getTeamName() {
+        return teamName;
+    }
+
+    /**
+     * Returns the number of wins.
+     *
+     * @return wins
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Returns the number of losses.
+     *
+     * @return losses
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Returns the number of ties.
+     *
+     * @return ties
+     */
+    public int getTies() {
+        return ties;
+    }
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return games played
+     */
+    public int getGamesPlayed() {
+        return wins + losses + ties;
+    }
+
+    /**
+     * Returns the total points scored.
+     *
+     * @return points for
+     */
+    public int getPointsFor() {
+        return pointsFor;
+    }
+
+    /**
+     * Returns the total points allowed.
+     *
+     * @return points against
+     */
+    public int getPointsAgainst() {
+        return pointsAgainst;
+    }
+
+    /**
+     * Returns points scored minus points allowed.
+     *
+     * @return point differential
+     */
+    public int getPointDifferential() {
+        return pointsFor - pointsAgainst;
+    }
+
+    /**
+     * Returns the winning percentage, counting a tie as half a win.
+     *
+     * @return winning percentage between 0 and 1, or 0 if no games were played
+     */
+    public double getWinPercentage() {
+        int played = getGamesPlayed();
+        return played == 0 ? 0.0 : (wins + ties / 2.0) / played;
+    }
+
+    /**
+     * Returns a string representation of the record.
+     *
+     * @return a formatted string with record details
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %d-%d-%d (PF %d, PA %d)", teamName, wins, losses, ties, pointsFor, pointsAgainst);
+    }
+}
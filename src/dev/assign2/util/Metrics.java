@@ -0,0 +1,335 @@
+/**
+ * Process-wide counters and timers for the managers' load, lookup, add and display paths.
+ * Counters and timers are created once by name and then updated without locking, so they can sit on
+ * hot paths. Each timer keeps a count, total, maximum and a log-linear latency histogram accurate to
+ * within 12.5%, from which percentiles are read, plus a count of items handled for throughput.
+ * Every timed operation is also emitted as an {@link OperationEvent} while Java Flight Recorder is running.
+ */
+package dev.assign2.util;
+
+import dev.assign2.io.JsonWriter;
+import dev.assign2.io.TableWriter;
+import jdk.jfr.FlightRecorder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Metrics {
+
+    private static final Metrics SHARED = new Metrics();
+
+    // Sorted so dumps list metrics in a stable order
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the metrics shared by all managers.
+     *
+     * @return the shared metrics
+     */
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the counter with a name, creating it on first use.
+     *
+     * @param name the counter name, for example "teams.find.miss"
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Returns the timer with a name, creating it on first use.
+     *
+     * @param name the timer name, for example "players.load"
+     * @return the timer
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * A count of events.
+     */
+    public static final class Counter {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds one.
+         */
+        public void increment() {
+            count.increment();
+        }
+
+        /**
+         * Adds a number of events.
+         *
+         * @param events the number to add
+         */
+        public void add(long events) {
+            count.add(events);
+        }
+
+        /**
+         * Returns the count so far.
+         *
+         * @return the count
+         */
+        public long get() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the counter name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Durations of one kind of operation and how many items they handled.
+     */
+    public static final class Timer {
+        // Values below 2^SUB_BITS get a bucket each; above, each power of two is split into 2^SUB_BITS buckets
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int LINEAR = 2 * SUB_BUCKETS;
+        private static final int BUCKETS = LINEAR + (64 - SUB_BITS - 1) * SUB_BUCKETS;
+
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder items = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Starts timing one operation.
+         *
+         * @return the running sample; stop it when the operation ends
+         */
+        public Sample start() {
+            return new Sample(this);
+        }
+
+        /**
+         * Records one operation that has already been timed.
+         *
+         * @param nanos the duration in nanoseconds
+         * @param handled the number of items, such as rows, the operation handled
+         */
+        public void record(long nanos, long handled) {
+            nanos = Math.max(0, nanos);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            items.add(handled);
+            histogram.incrementAndGet(bucket(nanos));
+        }
+
+        /**
+         * Returns the number of operations recorded.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the total time of all recorded operations.
+         *
+         * @return total nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Returns the longest recorded operation.
+         *
+         * @return maximum nanoseconds, or 0 if none were recorded
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Returns the number of items handled by all recorded operations.
+         *
+         * @return the item count
+         */
+        public long getItems() {
+            return items.sum();
+        }
+
+        /**
+         * Returns the items handled per second of recorded time.
+         *
+         * @return items per second, or 0 if no time was recorded
+         */
+        public double getItemsPerSecond() {
+            long nanos = getTotalNanos();
+            return nanos > 0 ? getItems() * 1e9 / nanos : 0;
+        }
+
+        /**
+         * Estimates a latency percentile from the histogram.
+         *
+         * @param percentile the percentile, from 0 to 100
+         * @return the estimated duration in nanoseconds, or 0 if none were recorded
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), getMaxNanos());
+            }
+            return getMaxNanos();
+        }
+
+        /**
+         * Returns the timer name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        private static int bucket(long value) {
+            if (value < LINEAR) return (int) value;
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < LINEAR) return bucket;
+            int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+            long sub = (bucket - LINEAR) % SUB_BUCKETS;
+            long width = 1L << (exponent - SUB_BITS);
+            return (1L << exponent) + (sub + 1) * width - 1;
+        }
+    }
+
+    /**
+     * One running operation of a timer.
+     */
+    public static final class Sample {
+        private final Timer timer;
+        private final long start = System.nanoTime();
+        // Creating the first event starts up the recorder's machinery, so none are made until it is recording
+        private final OperationEvent event = FlightRecorder.isInitialized() ? new OperationEvent() : null;
+
+        private Sample(Timer timer) {
+            this.timer = timer;
+            if (event != null) event.begin();
+        }
+
+        /**
+         * Stops the operation and records its duration.
+         *
+         * @param handled the number of items, such as rows, the operation handled
+         */
+        public void stop(long handled) {
+            timer.record(System.nanoTime() - start, handled);
+            if (event != null && event.shouldCommit()) {
+                event.operation = timer.name;
+                event.items = handled;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Writes every counter and timer as a JSON object, with durations in nanoseconds.
+     *
+     * @return the JSON text
+     */
+    public String toJson() {
+        JsonWriter json = new JsonWriter(256 * (counters.size() + timers.size()) + 32).beginObject();
+        json.name("counters").beginObject();
+        for (Counter counter : counters.values()) {
+            json.name(counter.name).value(counter.get());
+        }
+        json.endObject().name("timers").beginObject();
+        for (Timer timer : timers.values()) {
+            json.name(timer.name).beginObject()
+                    .name("count").value(timer.getCount())
+                    .name("totalNanos").value(timer.getTotalNanos())
+                    .name("p50Nanos").value(timer.getPercentile(50))
+                    .name("p90Nanos").value(timer.getPercentile(90))
+                    .name("p99Nanos").value(timer.getPercentile(99))
+                    .name("maxNanos").value(timer.getMaxNanos())
+                    .name("items").value(timer.getItems())
+                    .name("itemsPerSecond").value(timer.getItemsPerSecond())
+                    .endObject();
+        }
+        return json.endObject().endObject().toString();
+    }
+
+    /**
+     * Writes every counter and timer as tables, with durations in milliseconds.
+     *
+     * @param out the destination, for example standard output
+     * @throws IOException if the destination cannot be written
+     */
+    public void display(Writer out) throws IOException {
+        TableWriter table = new TableWriter(out, 24, 14);
+        table.line("--------------------------------------");
+        table.header("Counter", "Count");
+        table.line("--------------------------------------");
+        for (Counter counter : counters.values()) {
+            table.cell(counter.name).cell(Long.toString(counter.get())).endRow();
+        }
+        table.flush();
+        table = new TableWriter(out, 24, 9, 10, 10, 10, 10, 12);
+        table.line("-----------------------------------------------------------------------------------------");
+        table.header("Timer", "Count", "p50 ms", "p99 ms", "Max ms", "Total ms", "Items/s");
+        table.line("-----------------------------------------------------------------------------------------");
+        for (Timer timer : timers.values()) {
+            table.cell(timer.name)
+                    .cell(Long.toString(timer.getCount()))
+                    .cell(millis(timer.getPercentile(50)))
+                    .cell(millis(timer.getPercentile(99)))
+                    .cell(millis(timer.getMaxNanos()))
+                    .cell(millis(timer.getTotalNanos()))
+                    .cell(String.format("%.0f", timer.getItemsPerSecond()))
+                    .endRow();
+        }
+        table.flush();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
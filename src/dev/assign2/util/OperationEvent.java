@@ -0,0 +1,25 @@
+/**
+ * A Java Flight Recorder event for one timed manager operation, such as a load or a display.
+ * Emitted by {@link Metrics.Sample}; it costs nothing beyond a check while no recording is running.
+ */
+package dev.assign2.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("dev.assign2.Operation")
+@Label("NFL Operation")
+@Category("NFL Management System")
+@Description("A timed load, query or display in one of the managers")
+final class OperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Items")
+    @Description("Rows or results handled by the operation")
+    long items;
+}
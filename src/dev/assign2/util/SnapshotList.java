@@ -0,0 +1,116 @@
+/**
+ * A list that many threads can read while others write to it.
+ * Writers are serialized and publish each change as a new immutable (array, size) pair, so readers never
+ * lock: a snapshot sees a fixed prefix of the list and stays valid while later elements are appended.
+ * The list is append-only, and appends reuse the backing array until it is full.
+ */
+package dev.assign2.util;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+public final class SnapshotList<E> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private volatile State state = new State(new Object[8], 0);
+
+    /**
+     * Appends an element.
+     *
+     * @param element the element to append
+     */
+    public synchronized void add(E element) {
+        State current = state;
+        Object[] items = current.items;
+        if (current.size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+        }
+        items[current.size] = element;
+        state = new State(items, current.size + 1);
+    }
+
+    /**
+     * Appends all elements of a collection, publishing them together.
+     *
+     * @param elements the elements to append
+     */
+    public synchronized void addAll(Collection<? extends E> elements) {
+        State current = state;
+        Object[] items = current.items;
+        int size = current.size;
+        if (size + elements.size() > items.length) {
+            items = Arrays.copyOf(items, Math.max(items.length * 2, size + elements.size()));
+        }
+        for (E element : elements) {
+            items[size++] = element;
+        }
+        state = new State(items, size);
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return element count
+     */
+    public int size() {
+        return state.size;
+    }
+
+    /**
+     * Returns an unmodifiable view of the elements at this moment. Later changes are not visible through it.
+     *
+     * @return a stable snapshot of the list
+     */
+    public List<E> snapshot() {
+        return new Snapshot<>(state);
+    }
+
+    /**
+     * An immutable prefix of a backing array.
+     */
+    private static final class State implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Serializable whenever the list's elements are
+        @SuppressWarnings("serial")
+        private final Object[] items;
+        private final int size;
+
+        State(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+    }
+
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] items;
+        private final int size;
+
+        Snapshot(State state) {
+            this.items = state.items;
+            this.size = state.size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+            }
+            return (E) items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}